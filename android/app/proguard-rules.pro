@@ -0,0 +1,6 @@
+# Firestore documents are mapped by hand (see models/*Mapper), so the model
+# classes need no keep rules. Firebase and AndroidX ship their own consumer rules.
+
+# Keep readable stack traces in crash reports
+-keepattributes SourceFile,LineNumberTable
+-renamesourcefileattribute SourceFile
@@ -1,42 +1,99 @@
 package com.assignmate.utils;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
-import com.google.firebase.FirebaseApp;
+import com.assignmate.BuildConfig;
+import com.assignmate.data.FirestoreCache;
+import com.assignmate.data.ReadMetrics;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class AssignmateApplication extends Application {
     private static final String TAG = "AssignmateApp";
+    private static final int AUTH_EMULATOR_PORT = 9099;
+    private static final int FIRESTORE_EMULATOR_PORT = 8080;
     private static FirebaseAuth mAuth;
-    private static FirebaseFirestore mFirestore;
+    private static volatile FirebaseFirestore mFirestore;
+    // Firestore is set up here so the main thread never waits on it
+    private static final ExecutorService initExecutor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "firestore-init"));
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public interface FirestoreCallback {
+        void onFirestoreReady(FirebaseFirestore firestore);
+    }
 
     @Override
     public void onCreate() {
         super.onCreate();
         
-        // Initialize Firebase
-        FirebaseApp.initializeApp(this);
-        
-        mAuth = FirebaseAuth.getInstance();
-        mFirestore = FirebaseFirestore.getInstance();
-        
-        // Enable offline persistence
-        FirebaseFirestoreSettings settings = new FirebaseFirestoreSettings.Builder()
-                .setPersistenceEnabled(true)
-                .setCacheSizeBytes(FirebaseFirestoreSettings.CACHE_SIZE_UNLIMITED)
-                .build();
-        mFirestore.setFirestoreSettings(settings);
+        // FirebaseInitProvider has already set up the default FirebaseApp. Auth and
+        // Firestore are created on first use; once the first frame is drawn and the
+        // main thread goes idle, warm Firestore up in the background.
+        Looper.myQueue().addIdleHandler(() -> {
+            initExecutor.execute(AssignmateApplication::getFirestore);
+            return false;
+        });
         
-        Log.d(TAG, "Firebase initialized with offline persistence");
+        if (BuildConfig.DEBUG) {
+            // Reads per process each screen may use before ReadMetrics logs a warning
+            ReadMetrics metrics = ReadMetrics.getInstance();
+            metrics.setBudget("dashboard", 10);
+            metrics.setBudget("admin", 300);
+            metrics.setBudget("sync", 1000);
+        }
     }
 
-    public static FirebaseAuth getAuth() {
+    public static synchronized FirebaseAuth getAuth() {
+        if (mAuth == null) {
+            mAuth = FirebaseAuth.getInstance();
+            if (!BuildConfig.FIREBASE_EMULATOR_HOST.isEmpty()) {
+                mAuth.useEmulator(BuildConfig.FIREBASE_EMULATOR_HOST, AUTH_EMULATOR_PORT);
+            }
+        }
         return mAuth;
     }
 
-    public static FirebaseFirestore getFirestore() {
+    /**
+     * Delivers Firestore on the main thread once it is set up, right away if it
+     * already is. Launch-path screens use this instead of {@link #getFirestore} so
+     * settings and cache index setup never run on, or block, the main thread.
+     */
+    public static void whenFirestoreReady(FirestoreCallback callback) {
+        FirebaseFirestore firestore = mFirestore;
+        if (firestore != null) {
+            callback.onFirestoreReady(firestore);
+            return;
+        }
+        initExecutor.execute(() -> {
+            FirebaseFirestore initialized = getFirestore();
+            mainHandler.post(() -> callback.onFirestoreReady(initialized));
+        });
+    }
+
+    /** Settings must be applied before any other Firestore call, so always go through here. */
+    public static synchronized FirebaseFirestore getFirestore() {
+        if (mFirestore == null) {
+            FirebaseFirestore firestore = FirebaseFirestore.getInstance();
+            if (!BuildConfig.FIREBASE_EMULATOR_HOST.isEmpty()) {
+                firestore.useEmulator(BuildConfig.FIREBASE_EMULATOR_HOST, FIRESTORE_EMULATOR_PORT);
+            }
+            
+            // Offline persistence with a bounded, LRU-collected cache
+            firestore.setFirestoreSettings(FirestoreCache.settings(getCacheBudgetBytes()));
+            FirestoreCache.configureIndexes(firestore);
+            mFirestore = firestore;
+            
+            Log.d(TAG, "Firestore initialized with a " + BuildConfig.FIRESTORE_CACHE_SIZE_MB + " MB offline cache");
+        }
         return mFirestore;
     }
+
+    public static long getCacheBudgetBytes() {
+        return BuildConfig.FIRESTORE_CACHE_SIZE_MB * FirestoreCache.MB;
+    }
 }
\ No newline at end of file
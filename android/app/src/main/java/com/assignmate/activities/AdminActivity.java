@@ -12,13 +12,15 @@ import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.assignmate.R;
 import com.assignmate.adapters.UsersAdapter;
+import com.assignmate.data.AdminStatsRepository;
+import com.assignmate.data.AssignmentCountCache;
+import com.assignmate.data.UserPager;
 import com.assignmate.models.User;
+import com.assignmate.models.UserMapper;
 import com.assignmate.utils.AssignmateApplication;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.ListenerRegistration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -28,7 +30,9 @@ public class AdminActivity extends AppCompatActivity implements UsersAdapter.OnU
     private FirebaseAuth mAuth;
     private FirebaseFirestore mFirestore;
     private FirebaseUser currentUser;
-    private ListenerRegistration usersListener;
+    private UserPager userPager;
+    private AssignmentCountCache countCache;
+    private AdminStatsRepository statsRepository;
     
     private RecyclerView recyclerView;
     private UsersAdapter adapter;
@@ -36,7 +40,9 @@ public class AdminActivity extends AppCompatActivity implements UsersAdapter.OnU
     private ProgressBar progressBar;
     private TextView tvTotalUsers, tvTotalAssignments, tvActiveToday;
     
-    private List<User> users = new ArrayList<>();
+    private static final int PREFETCH_DISTANCE = 10;
+    // About a screen and a half of rows
+    private static final int PREINFLATE_ROWS = 12;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -48,6 +54,8 @@ public class AdminActivity extends AppCompatActivity implements UsersAdapter.OnU
         
         mAuth = AssignmateApplication.getAuth();
         mFirestore = AssignmateApplication.getFirestore();
+        countCache = new AssignmentCountCache(mFirestore);
+        statsRepository = new AdminStatsRepository(mFirestore);
         currentUser = mAuth.getCurrentUser();
         
         if (currentUser == null) {
@@ -71,72 +79,83 @@ public class AdminActivity extends AppCompatActivity implements UsersAdapter.OnU
     }
     
     private void setupRecyclerView() {
-        adapter = new UsersAdapter(users, this);
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new UsersAdapter(this, this);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(adapter);
+        // Rows inflate off the main thread while the first data loads; needs the layout manager set
+        adapter.preinflate(recyclerView, PREINFLATE_ROWS);
+        
+        // Slide the page window as the list nears either end
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView view, int dx, int dy) {
+                if (userPager == null) return;
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition()
+                        >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+                    userPager.loadNext();
+                } else if (dy < 0 && userPager.hasPrevious()
+                        && layoutManager.findFirstVisibleItemPosition() <= PREFETCH_DISTANCE) {
+                    userPager.loadPrevious();
+                }
+            }
+        });
     }
     
     private void setupListeners() {
-        swipeRefreshLayout.setOnRefreshListener(this::loadData);
+        swipeRefreshLayout.setOnRefreshListener(() -> {
+            countCache.invalidate();
+            statsRepository.refresh();
+            loadData();
+        });
     }
     
     private void loadData() {
         progressBar.setVisibility(View.VISIBLE);
         
-        // Load users with real-time updates
-        usersListener = mFirestore.collection("users")
-                .addSnapshotListener((snapshots, error) -> {
+        if (userPager == null) {
+            userPager = new UserPager(mFirestore, this, new UserPager.Listener() {
+                @Override
+                public void onUsersChanged(List<User> users) {
                     swipeRefreshLayout.setRefreshing(false);
                     progressBar.setVisibility(View.GONE);
+                    adapter.updateUsers(users);
                     
-                    if (error != null) {
-                        Toast.makeText(this, "Error loading data", Toast.LENGTH_SHORT).show();
-                        return;
-                    }
-                    
-                    if (snapshots != null) {
-                        users.clear();
-                        int activeToday = 0;
-                        java.util.Date today = new java.util.Date();
-                        today.setHours(0);
-                        today.setMinutes(0);
-                        
-                        for (DocumentSnapshot doc : snapshots.getDocuments()) {
-                            User user = doc.toObject(User.class);
-                            if (user != null) {
-                                user.setId(doc.getId());
-                                
-                                // Get assignment count for this user
-                                final User finalUser = user;
-                                mFirestore.collection("assignments")
-                                        .whereEqualTo("userId", user.getId())
-                                        .get()
-                                        .addOnSuccessListener(assignmentsSnapshot -> {
-                                            finalUser.setAssignmentCount(assignmentsSnapshot.size());
-                                            adapter.notifyDataSetChanged();
-                                        });
-                                
-                                if (user.getLastLoginAt() != null && 
-                                    user.getLastLoginAt().after(today)) {
-                                    activeToday++;
-                                }
-                                
-                                users.add(user);
-                            }
-                        }
-                        
-                        adapter.updateUsers(users);
-                        tvTotalUsers.setText(String.valueOf(users.size()));
-                        tvActiveToday.setText(String.valueOf(activeToday));
-                        
-                        // Get total assignments
-                        mFirestore.collection("assignments")
-                                .get()
-                                .addOnSuccessListener(assignmentsSnapshot -> {
-                                    tvTotalAssignments.setText(String.valueOf(assignmentsSnapshot.size()));
-                                });
+                    List<String> userIds = new ArrayList<>(users.size());
+                    for (User user : users) {
+                        userIds.add(user.getId());
                     }
-                });
+                    // Counts are aggregated server-side and cached across user changes
+                    countCache.loadCounts(userIds, adapter::updateAssignmentCounts);
+                }
+                
+                @Override
+                public void onError(Exception e) {
+                    swipeRefreshLayout.setRefreshing(false);
+                    progressBar.setVisibility(View.GONE);
+                    Toast.makeText(AdminActivity.this, "Error loading data", Toast.LENGTH_SHORT).show();
+                }
+            });
+        }
+        // Restarting releases any page listeners before attaching the first page
+        userPager.start();
+    }
+    
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Totals are count aggregations refreshed on a schedule, not per users change
+        statsRepository.start(stats -> {
+            tvTotalUsers.setText(String.valueOf(stats.totalUsers));
+            tvTotalAssignments.setText(String.valueOf(stats.totalAssignments));
+            tvActiveToday.setText(String.valueOf(stats.activeToday));
+        });
+    }
+    
+    @Override
+    protected void onStop() {
+        super.onStop();
+        statsRepository.stop();
     }
     
     @Override
@@ -154,7 +173,7 @@ public class AdminActivity extends AppCompatActivity implements UsersAdapter.OnU
         
         boolean newAdminStatus = !user.isAdmin();
         mFirestore.collection("users").document(user.getId())
-                .update("isAdmin", newAdminStatus)
+                .update(UserMapper.FIELD_IS_ADMIN, newAdminStatus)
                 .addOnSuccessListener(aVoid -> {
                     Toast.makeText(this, "Admin status updated", Toast.LENGTH_SHORT).show();
                 })
@@ -175,8 +194,8 @@ public class AdminActivity extends AppCompatActivity implements UsersAdapter.OnU
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (usersListener != null) {
-            usersListener.remove();
+        if (userPager != null) {
+            userPager.stop();
         }
     }
 }
\ No newline at end of file
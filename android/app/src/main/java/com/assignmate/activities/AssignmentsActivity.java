@@ -1,7 +1,10 @@
 package com.assignmate.activities;
 
+import android.app.DatePickerDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
@@ -10,30 +13,36 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.view.ActionMode;
+import androidx.appcompat.widget.SearchView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.assignmate.R;
 import com.assignmate.adapters.AssignmentsAdapter;
+import com.assignmate.core.AssignmentQueryIndex;
+import com.assignmate.core.AssignmentSearchIndex;
+import com.assignmate.data.AssignmentRepository;
+import com.assignmate.data.AssignmentWindow;
 import com.assignmate.models.Assignment;
 import com.assignmate.utils.AssignmateApplication;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.Query;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
 public class AssignmentsActivity extends AppCompatActivity implements AssignmentsAdapter.OnAssignmentClickListener {
     private FirebaseAuth mAuth;
-    private FirebaseFirestore mFirestore;
+    private AssignmentRepository repository;
     private FirebaseUser currentUser;
-    private ListenerRegistration assignmentsListener;
+    private AssignmentWindow assignmentWindow;
+    private AssignmentRepository.ChangeListener indexListener;
+    private ActionMode selectionMode;
     
     private RecyclerView recyclerView;
     private AssignmentsAdapter adapter;
@@ -43,6 +52,21 @@ public class AssignmentsActivity extends AppCompatActivity implements Assignment
     private TextView tvEmpty;
     
     private List<Assignment> assignments = new ArrayList<>();
+    
+    // Search, sorts and filters run against every synced assignment, not just the paged window
+    private final AssignmentSearchIndex searchIndex = new AssignmentSearchIndex();
+    private final AssignmentQueryIndex queryIndex = new AssignmentQueryIndex();
+    private AssignmentQueryIndex.Filter filter = AssignmentQueryIndex.Filter.ANY;
+    private AssignmentQueryIndex.Sort sort = AssignmentQueryIndex.Sort.DUE_DATE;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = this::runSearch;
+    private String searchQuery = "";
+    
+    private static final int PREFETCH_DISTANCE = 10;
+    // About a screen and a half of rows
+    private static final int PREINFLATE_ROWS = 12;
+    private static final long SEARCH_DEBOUNCE_MS = 150;
+    private static final int SEARCH_LIMIT = 200;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -53,7 +77,7 @@ public class AssignmentsActivity extends AppCompatActivity implements Assignment
         getSupportActionBar().setTitle("Assignments");
         
         mAuth = AssignmateApplication.getAuth();
-        mFirestore = AssignmateApplication.getFirestore();
+        repository = AssignmentRepository.getInstance(this);
         currentUser = mAuth.getCurrentUser();
         
         if (currentUser == null) {
@@ -76,9 +100,26 @@ public class AssignmentsActivity extends AppCompatActivity implements Assignment
     }
     
     private void setupRecyclerView() {
-        adapter = new AssignmentsAdapter(assignments, this);
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        adapter = new AssignmentsAdapter(this, this);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(adapter);
+        // Rows inflate off the main thread while the first data loads; needs the layout manager set
+        adapter.preinflate(recyclerView, PREINFLATE_ROWS);
+        
+        // Page older/newer assignments into the window before the user reaches either end
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView view, int dx, int dy) {
+                if (assignmentWindow == null || isProjected()) return;
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition()
+                        >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+                    assignmentWindow.loadNewer();
+                } else if (dy < 0 && layoutManager.findFirstVisibleItemPosition() <= PREFETCH_DISTANCE) {
+                    assignmentWindow.loadOlder();
+                }
+            }
+        });
     }
     
     private void setupListeners() {
@@ -87,46 +128,160 @@ public class AssignmentsActivity extends AppCompatActivity implements Assignment
             showAddAssignmentDialog();
         });
         
-        swipeRefreshLayout.setOnRefreshListener(this::loadAssignments);
+        swipeRefreshLayout.setOnRefreshListener(() -> repository.refresh());
     }
     
     private void loadAssignments() {
         progressBar.setVisibility(View.VISIBLE);
         
-        // Real-time updates with Firestore
-        assignmentsListener = mFirestore.collection("assignments")
-                .whereEqualTo("userId", currentUser.getUid())
-                .orderBy("dueDate", Query.Direction.ASCENDING)
-                .addSnapshotListener((snapshots, error) -> {
-                    swipeRefreshLayout.setRefreshing(false);
-                    progressBar.setVisibility(View.GONE);
-                    
-                    if (error != null) {
-                        Toast.makeText(this, "Error loading assignments", Toast.LENGTH_SHORT).show();
-                        return;
-                    }
-                    
-                    if (snapshots != null) {
-                        assignments.clear();
-                        for (DocumentSnapshot doc : snapshots.getDocuments()) {
-                            Assignment assignment = doc.toObject(Assignment.class);
-                            if (assignment != null) {
-                                assignment.setId(doc.getId());
-                                assignments.add(assignment);
-                            }
-                        }
-                        
-                        adapter.updateAssignments(assignments);
-                        
-                        if (assignments.isEmpty()) {
-                            tvEmpty.setVisibility(View.VISIBLE);
-                            recyclerView.setVisibility(View.GONE);
-                        } else {
-                            tvEmpty.setVisibility(View.GONE);
-                            recyclerView.setVisibility(View.VISIBLE);
-                        }
+        // Windowed around now and served from the local store; the repository syncs deltas from Firestore
+        assignmentWindow = new AssignmentWindow(repository, currentUser.getUid(), new AssignmentWindow.Listener() {
+            @Override
+            public void onWindowChanged(List<Assignment> loaded, int firstUpcoming) {
+                swipeRefreshLayout.setRefreshing(false);
+                progressBar.setVisibility(View.GONE);
+                
+                assignments = loaded;
+                if (isProjected()) return;
+                showAssignments(assignments, () -> {
+                    // Open on upcoming work rather than the oldest loaded item
+                    if (firstUpcoming > 0) {
+                        ((LinearLayoutManager) recyclerView.getLayoutManager())
+                                .scrollToPositionWithOffset(firstUpcoming, 0);
                     }
                 });
+            }
+            
+            @Override
+            public void onSyncError(Exception e) {
+                swipeRefreshLayout.setRefreshing(false);
+                progressBar.setVisibility(View.GONE);
+                Toast.makeText(AssignmentsActivity.this, "Error loading assignments", Toast.LENGTH_SHORT).show();
+            }
+        });
+        assignmentWindow.start(this);
+        
+        // Kept current from document changes so searching, sorting and filtering never touch the network
+        indexListener = new AssignmentRepository.ChangeListener() {
+            @Override
+            public void onAssignmentsReset(List<Assignment> all) {
+                searchIndex.reset(all);
+                queryIndex.reset(all);
+                if (isProjected()) showProjection();
+            }
+            
+            @Override
+            public void onAssignmentsChanged(List<Assignment> upserts, List<String> removedIds) {
+                for (String id : removedIds) {
+                    searchIndex.remove(id);
+                    queryIndex.remove(id);
+                }
+                for (Assignment assignment : upserts) {
+                    searchIndex.upsert(assignment);
+                    queryIndex.upsert(assignment);
+                }
+                if (isProjected()) showProjection();
+            }
+        };
+        repository.addChangeListener(this, currentUser.getUid(), indexListener);
+    }
+    
+    private void showAssignments(List<Assignment> shown, Runnable onCommitted) {
+        adapter.submitAssignments(shown, onCommitted);
+        
+        if (shown.isEmpty()) {
+            tvEmpty.setText(isProjected() ? "No matching assignments" : "No assignments yet\nTap + to create one");
+            tvEmpty.setVisibility(View.VISIBLE);
+            recyclerView.setVisibility(View.GONE);
+        } else {
+            tvEmpty.setVisibility(View.GONE);
+            recyclerView.setVisibility(View.VISIBLE);
+        }
+    }
+    
+    private boolean isSearching() {
+        return !searchQuery.isEmpty();
+    }
+    
+    /** Whether the list shows an in-memory projection instead of the paged window. */
+    private boolean isProjected() {
+        return isSearching() || !filter.isAny() || sort != AssignmentQueryIndex.Sort.DUE_DATE;
+    }
+    
+    private void refreshList() {
+        if (isProjected()) {
+            showProjection();
+        } else {
+            showAssignments(assignments, null);
+        }
+    }
+    
+    private void showProjection() {
+        if (!isSearching()) {
+            showAssignments(queryIndex.query(filter, sort), null);
+            return;
+        }
+        List<Assignment> matches = searchIndex.search(searchQuery, Integer.MAX_VALUE);
+        List<Assignment> shown = new ArrayList<>();
+        for (Assignment assignment : matches) {
+            if (filter.matches(assignment)) shown.add(assignment);
+        }
+        // Search results already come in due date order
+        if (sort != AssignmentQueryIndex.Sort.DUE_DATE) {
+            Collections.sort(shown, sort.comparator());
+        }
+        showAssignments(shown.size() > SEARCH_LIMIT ? shown.subList(0, SEARCH_LIMIT) : shown, null);
+    }
+    
+    private void onSearchQueryChanged(String query, boolean immediate) {
+        String trimmed = query.trim();
+        if (trimmed.equals(searchQuery)) return;
+        searchQuery = trimmed;
+        // A newer keystroke replaces the query that hasn't run yet
+        handler.removeCallbacks(searchRunnable);
+        if (!isSearching()) {
+            refreshList();
+        } else if (immediate) {
+            runSearch();
+        } else {
+            handler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
+        }
+    }
+    
+    private void runSearch() {
+        handler.removeCallbacks(searchRunnable);
+        if (!isSearching()) return;
+        showProjection();
+    }
+    
+    private void applySort(AssignmentQueryIndex.Sort newSort, MenuItem item) {
+        item.setChecked(true);
+        sort = newSort;
+        refreshList();
+    }
+    
+    private void applyFilter(AssignmentQueryIndex.Filter newFilter, MenuItem item) {
+        if (item != null) item.setChecked(true);
+        filter = newFilter;
+        refreshList();
+    }
+    
+    private void showSubjectFilterDialog() {
+        List<String> subjects = queryIndex.subjects();
+        String[] choices = new String[subjects.size() + 1];
+        choices[0] = "Any subject";
+        for (int i = 0; i < subjects.size(); i++) {
+            choices[i + 1] = subjects.get(i);
+        }
+        int checked = filter.subject == null ? 0 : subjects.indexOf(filter.subject) + 1;
+        new AlertDialog.Builder(this)
+                .setTitle("Subject")
+                .setSingleChoiceItems(choices, checked, (dialog, which) -> {
+                    applyFilter(filter.withSubject(which == 0 ? null : subjects.get(which - 1)), null);
+                    dialog.dismiss();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
     }
     
     private void showAddAssignmentDialog() {
@@ -136,44 +291,125 @@ public class AssignmentsActivity extends AppCompatActivity implements Assignment
     
     @Override
     public void onAssignmentClick(Assignment assignment) {
+        if (selectionMode != null) {
+            toggleSelection(assignment);
+            return;
+        }
         // Show assignment details
         showAssignmentDetails(assignment);
     }
     
+    @Override
+    public void onAssignmentLongClick(Assignment assignment) {
+        if (selectionMode == null) {
+            selectionMode = startSupportActionMode(selectionCallback);
+        }
+        toggleSelection(assignment);
+    }
+    
+    private void toggleSelection(Assignment assignment) {
+        adapter.toggleSelection(assignment.getId());
+        int count = adapter.getSelectedCount();
+        if (count == 0) {
+            selectionMode.finish();
+        } else {
+            selectionMode.setTitle(count + " selected");
+        }
+    }
+    
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.menu_assignments_selection, menu);
+            return true;
+        }
+        
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+        
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            List<String> ids = adapter.getSelectedIds();
+            int id = item.getItemId();
+            if (id == R.id.action_complete_selected) {
+                completeAssignments(ids);
+            } else if (id == R.id.action_reschedule_selected) {
+                showRescheduleDialog(ids);
+            } else if (id == R.id.action_delete_selected) {
+                confirmDelete(ids, ids.size() + " assignments");
+            } else {
+                return false;
+            }
+            mode.finish();
+            return true;
+        }
+        
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            selectionMode = null;
+            adapter.clearSelection();
+        }
+    };
+    
     @Override
     public void onAssignmentComplete(Assignment assignment) {
         // Mark as complete
-        mFirestore.collection("assignments").document(assignment.getId())
-                .update("status", "completed")
-                .addOnSuccessListener(aVoid -> {
-                    Toast.makeText(this, "Marked as completed", Toast.LENGTH_SHORT).show();
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(this, "Failed to update", Toast.LENGTH_SHORT).show();
-                });
+        completeAssignments(Collections.singletonList(assignment.getId()));
+    }
+    
+    private void completeAssignments(List<String> ids) {
+        // Writes are coalesced and committed in batches; one callback per action
+        repository.updateStatus(ids, "completed", (succeeded, failed) -> {
+            if (failed > 0) {
+                Toast.makeText(this, "Failed to update", Toast.LENGTH_SHORT).show();
+            } else {
+                Toast.makeText(this, "Marked as completed", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+    
+    private void showRescheduleDialog(List<String> ids) {
+        Calendar calendar = Calendar.getInstance();
+        new DatePickerDialog(this, (view, year, month, dayOfMonth) -> {
+            Calendar dueDate = Calendar.getInstance();
+            dueDate.set(year, month, dayOfMonth, 23, 59, 0);
+            repository.reschedule(ids, dueDate.getTime(), (succeeded, failed) -> {
+                if (failed > 0) {
+                    Toast.makeText(this, "Failed to reschedule", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(this, succeeded + " assignment(s) rescheduled", Toast.LENGTH_SHORT).show();
+                }
+            });
+        }, calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH)).show();
     }
     
     @Override
     public void onAssignmentDelete(Assignment assignment) {
+        confirmDelete(Collections.singletonList(assignment.getId()), "\"" + assignment.getTitle() + "\"");
+    }
+    
+    private void confirmDelete(List<String> ids, String label) {
         new AlertDialog.Builder(this)
                 .setTitle("Delete Assignment")
-                .setMessage("Are you sure you want to delete \"" + assignment.getTitle() + "\"?")
+                .setMessage("Are you sure you want to delete " + label + "?")
                 .setPositiveButton("Delete", (dialog, which) -> {
-                    deleteAssignment(assignment);
+                    deleteAssignments(ids);
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
     }
     
-    private void deleteAssignment(Assignment assignment) {
-        mFirestore.collection("assignments").document(assignment.getId())
-                .delete()
-                .addOnSuccessListener(aVoid -> {
-                    Toast.makeText(this, "Assignment deleted", Toast.LENGTH_SHORT).show();
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(this, "Failed to delete", Toast.LENGTH_SHORT).show();
-                });
+    private void deleteAssignments(List<String> ids) {
+        repository.delete(ids, (succeeded, failed) -> {
+            if (failed > 0) {
+                Toast.makeText(this, "Failed to delete", Toast.LENGTH_SHORT).show();
+            } else {
+                Toast.makeText(this, ids.size() > 1 ? succeeded + " assignments deleted" : "Assignment deleted",
+                        Toast.LENGTH_SHORT).show();
+            }
+        });
     }
     
     private void showAssignmentDetails(Assignment assignment) {
@@ -187,13 +423,61 @@ public class AssignmentsActivity extends AppCompatActivity implements Assignment
                 .show();
     }
     
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_assignments, menu);
+        SearchView searchView = (SearchView) menu.findItem(R.id.action_search).getActionView();
+        searchView.setQueryHint("Search assignments");
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                onSearchQueryChanged(query, true);
+                searchView.clearFocus();
+                return true;
+            }
+            
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                onSearchQueryChanged(newText, false);
+                return true;
+            }
+        });
+        return true;
+    }
+    
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
-        if (item.getItemId() == android.R.id.home) {
+        int id = item.getItemId();
+        if (id == android.R.id.home) {
             onBackPressed();
-            return true;
+        } else if (id == R.id.sort_due_date) {
+            applySort(AssignmentQueryIndex.Sort.DUE_DATE, item);
+        } else if (id == R.id.sort_newest) {
+            applySort(AssignmentQueryIndex.Sort.NEWEST, item);
+        } else if (id == R.id.sort_priority) {
+            applySort(AssignmentQueryIndex.Sort.PRIORITY, item);
+        } else if (id == R.id.status_any) {
+            applyFilter(filter.withStatus(null), item);
+        } else if (id == R.id.status_pending) {
+            applyFilter(filter.withStatus("pending"), item);
+        } else if (id == R.id.status_in_progress) {
+            applyFilter(filter.withStatus("in_progress"), item);
+        } else if (id == R.id.status_completed) {
+            applyFilter(filter.withStatus("completed"), item);
+        } else if (id == R.id.priority_any) {
+            applyFilter(filter.withPriority(null), item);
+        } else if (id == R.id.priority_high) {
+            applyFilter(filter.withPriority("high"), item);
+        } else if (id == R.id.priority_medium) {
+            applyFilter(filter.withPriority("medium"), item);
+        } else if (id == R.id.priority_low) {
+            applyFilter(filter.withPriority("low"), item);
+        } else if (id == R.id.action_filter_subject) {
+            showSubjectFilterDialog();
+        } else {
+            return super.onOptionsItemSelected(item);
         }
-        return super.onOptionsItemSelected(item);
+        return true;
     }
     
     private void navigateToLogin() {
@@ -206,8 +490,12 @@ public class AssignmentsActivity extends AppCompatActivity implements Assignment
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (assignmentsListener != null) {
-            assignmentsListener.remove();
+        handler.removeCallbacks(searchRunnable);
+        if (assignmentWindow != null) {
+            assignmentWindow.stop();
+        }
+        if (indexListener != null) {
+            repository.removeChangeListener(indexListener);
         }
     }
 }
\ No newline at end of file
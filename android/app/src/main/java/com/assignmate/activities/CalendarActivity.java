@@ -5,19 +5,22 @@ import android.widget.CalendarView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import com.assignmate.R;
+import com.assignmate.data.AssignmentRepository;
+import com.assignmate.data.CalendarDueIndex;
+import com.assignmate.models.Assignment;
 import com.assignmate.utils.AssignmateApplication;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
 import java.util.Calendar;
-import java.util.Date;
+import java.util.List;
 
 public class CalendarActivity extends AppCompatActivity {
     private FirebaseAuth mAuth;
-    private FirebaseFirestore mFirestore;
+    private AssignmentRepository repository;
     private FirebaseUser currentUser;
     private CalendarView calendarView;
+    private CalendarDueIndex dueIndex;
+    private AssignmentRepository.ChangeListener invalidationListener;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -28,7 +31,7 @@ public class CalendarActivity extends AppCompatActivity {
         getSupportActionBar().setTitle("Calendar");
         
         mAuth = AssignmateApplication.getAuth();
-        mFirestore = AssignmateApplication.getFirestore();
+        repository = AssignmentRepository.getInstance(this);
         currentUser = mAuth.getCurrentUser();
         
         if (currentUser == null) {
@@ -37,42 +40,46 @@ public class CalendarActivity extends AppCompatActivity {
         }
         
         calendarView = findViewById(R.id.calendarView);
+        dueIndex = new CalendarDueIndex(repository, currentUser.getUid());
+        
+        // Rebuild the month indexes the changed assignments fall in
+        invalidationListener = new AssignmentRepository.ChangeListener() {
+            @Override
+            public void onAssignmentsReset(List<Assignment> assignments) {
+                dueIndex.invalidate();
+                warmSelectedMonth();
+            }
+            
+            @Override
+            public void onAssignmentsChanged(List<Assignment> upserts, List<String> removedIds) {
+                dueIndex.invalidate(upserts, removedIds);
+                warmSelectedMonth();
+            }
+        };
+        repository.addChangeListener(this, currentUser.getUid(), invalidationListener);
+        warmSelectedMonth();
         
         calendarView.setOnDateChangeListener((view, year, month, dayOfMonth) -> {
-            Calendar calendar = Calendar.getInstance();
-            calendar.set(year, month, dayOfMonth);
-            Date selectedDate = calendar.getTime();
-            loadAssignmentsForDate(selectedDate);
+            loadAssignmentsForDate(year, month, dayOfMonth);
         });
     }
     
-    private void loadAssignmentsForDate(Date date) {
-        // Load assignments for selected date
-        Calendar startOfDay = Calendar.getInstance();
-        startOfDay.setTime(date);
-        startOfDay.set(Calendar.HOUR_OF_DAY, 0);
-        startOfDay.set(Calendar.MINUTE, 0);
-        startOfDay.set(Calendar.SECOND, 0);
-        
-        Calendar endOfDay = Calendar.getInstance();
-        endOfDay.setTime(date);
-        endOfDay.set(Calendar.HOUR_OF_DAY, 23);
-        endOfDay.set(Calendar.MINUTE, 59);
-        endOfDay.set(Calendar.SECOND, 59);
-        
-        mFirestore.collection("assignments")
-                .whereEqualTo("userId", currentUser.getUid())
-                .whereGreaterThanOrEqualTo("dueDate", startOfDay.getTime())
-                .whereLessThanOrEqualTo("dueDate", endOfDay.getTime())
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    int count = querySnapshot.size();
-                    if (count > 0) {
-                        Toast.makeText(this, count + " assignment(s) due on this date", Toast.LENGTH_SHORT).show();
-                    } else {
-                        Toast.makeText(this, "No assignments due on this date", Toast.LENGTH_SHORT).show();
-                    }
-                });
+    private void warmSelectedMonth() {
+        Calendar selected = Calendar.getInstance();
+        selected.setTimeInMillis(calendarView.getDate());
+        dueIndex.loadMonth(selected.get(Calendar.YEAR), selected.get(Calendar.MONTH), month -> { });
+    }
+    
+    private void loadAssignmentsForDate(int year, int month, int dayOfMonth) {
+        // Answered from the month index; only the first tap in a month reads the store
+        dueIndex.loadMonth(year, month, index -> {
+            int count = index.countForDay(dayOfMonth);
+            if (count > 0) {
+                Toast.makeText(this, count + " assignment(s) due on this date", Toast.LENGTH_SHORT).show();
+            } else {
+                Toast.makeText(this, "No assignments due on this date", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
     
     @Override
@@ -80,4 +87,12 @@ public class CalendarActivity extends AppCompatActivity {
         onBackPressed();
         return true;
     }
+    
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (invalidationListener != null) {
+            repository.removeChangeListener(invalidationListener);
+        }
+    }
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 package com.assignmate.activities;
 
+import android.Manifest;
 import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
@@ -9,19 +14,37 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
+import androidx.core.app.ActivityCompat;
+import androidx.core.content.ContextCompat;
+import com.assignmate.BuildConfig;
 import com.assignmate.R;
+import com.assignmate.core.AssignmentStatsEngine;
+import com.assignmate.data.ActivityTracker;
+import com.assignmate.data.AssignmentRepository;
+import com.assignmate.data.FirestoreCache;
+import com.assignmate.data.ReadMetrics;
+import com.assignmate.data.UserStats;
+import com.assignmate.models.Assignment;
+import com.assignmate.reminders.ReminderScheduler;
 import com.assignmate.utils.AssignmateApplication;
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.QuerySnapshot;
+import java.util.List;
 
 public class DashboardActivity extends AppCompatActivity {
     private FirebaseAuth mAuth;
     private FirebaseFirestore mFirestore;
     private FirebaseUser currentUser;
+    private AssignmentRepository repository;
+    private AssignmentRepository.ChangeListener statsListener;
+    private AssignmentRepository.ChangeListener reminderListener;
+    private final AssignmentStatsEngine statsEngine = new AssignmentStatsEngine();
+    private boolean statsEngineReady;
+    private static final int REQUEST_NOTIFICATIONS = 1;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable overdueTick = this::onOverdueTick;
     
     private TextView tvUserName;
     private CardView cardTotal, cardCompleted, cardPending, cardOverdue;
@@ -34,7 +57,6 @@ public class DashboardActivity extends AppCompatActivity {
         setContentView(R.layout.activity_dashboard);
         
         mAuth = AssignmateApplication.getAuth();
-        mFirestore = AssignmateApplication.getFirestore();
         currentUser = mAuth.getCurrentUser();
         
         if (currentUser == null) {
@@ -44,8 +66,23 @@ public class DashboardActivity extends AppCompatActivity {
         
         initializeViews();
         loadUserData();
-        loadStats();
         setupListeners();
+        // The stats document's pending bucket still holds overdue items, so these wait for the engine
+        tvPending.setText("–");
+        tvOverdue.setText("–");
+        
+        // The first frame needs only views and the cached user; data waits for Firestore
+        boolean newSession = savedInstanceState == null;
+        AssignmateApplication.whenFirestoreReady(firestore -> {
+            if (isDestroyed()) return;
+            mFirestore = firestore;
+            repository = AssignmentRepository.getInstance(this);
+            // Recreations aren't new sessions; the tracker throttles the profile write
+            if (newSession) {
+                ActivityTracker.getInstance(this).recordSession(mFirestore, currentUser.getUid());
+            }
+            loadStats();
+        });
     }
     
     private void initializeViews() {
@@ -68,49 +105,80 @@ public class DashboardActivity extends AppCompatActivity {
             displayName = currentUser.getEmail();
         }
         tvUserName.setText("Welcome, " + displayName + "!");
-        
-        // Update last login
-        mFirestore.collection("users").document(currentUser.getUid())
-                .update("lastLoginAt", new java.util.Date());
     }
     
     private void loadStats() {
         String userId = currentUser.getUid();
         
-        // Total assignments
-        mFirestore.collection("assignments")
-                .whereEqualTo("userId", userId)
-                .addSnapshotListener((snapshots, error) -> {
-                    if (error != null) return;
-                    if (snapshots != null) {
-                        tvTotal.setText(String.valueOf(snapshots.size()));
-                        updateStats(snapshots);
-                    }
-                });
-    }
-    
-    private void updateStats(QuerySnapshot snapshots) {
-        int completed = 0;
-        int pending = 0;
-        int overdue = 0;
-        java.util.Date now = new java.util.Date();
-        
-        for (com.google.firebase.firestore.DocumentSnapshot doc : snapshots.getDocuments()) {
-            String status = doc.getString("status");
-            java.util.Date dueDate = doc.getDate("dueDate");
+        // Counters are maintained from document changes, not recomputed per snapshot
+        statsListener = new AssignmentRepository.ChangeListener() {
+            @Override
+            public void onAssignmentsReset(List<Assignment> assignments) {
+                statsEngineReady = true;
+                statsEngine.reset(assignments, System.currentTimeMillis());
+                updateStats();
+            }
             
-            if ("completed".equals(status)) {
-                completed++;
-            } else if (dueDate != null && dueDate.before(now)) {
-                overdue++;
-            } else {
-                pending++;
+            @Override
+            public void onAssignmentsChanged(List<Assignment> upserts, List<String> removedIds) {
+                long now = System.currentTimeMillis();
+                for (String id : removedIds) {
+                    statsEngine.remove(id);
+                }
+                for (Assignment assignment : upserts) {
+                    statsEngine.upsert(assignment, now);
+                }
+                updateStats();
             }
+        };
+        repository.addChangeListener(this, userId, statsListener);
+        
+        // Keeps the single reminder alarm in step with local changes
+        reminderListener = ReminderScheduler.getInstance(this).listenerFor(userId);
+        repository.addChangeListener(this, userId, reminderListener);
+        requestNotificationPermission();
+        
+        // One document read gives first-paint counts before the local store has loaded
+        UserStats.load(mFirestore, userId, stats -> {
+            if (statsEngineReady || isFinishing()) return;
+            tvTotal.setText(String.valueOf(stats.total));
+            tvCompleted.setText(String.valueOf(stats.completed));
+        });
+    }
+    
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                        != PackageManager.PERMISSION_GRANTED) {
+            ActivityCompat.requestPermissions(this,
+                    new String[] {Manifest.permission.POST_NOTIFICATIONS}, REQUEST_NOTIFICATIONS);
+        }
+    }
+    
+    private void onOverdueTick() {
+        if (statsEngine.advanceTo(System.currentTimeMillis())) {
+            updateStats();
+        } else {
+            scheduleOverdueTick();
         }
+    }
+    
+    private void scheduleOverdueTick() {
+        handler.removeCallbacks(overdueTick);
+        long next = statsEngine.nextTransitionAt();
+        if (next != Long.MAX_VALUE) {
+            handler.postDelayed(overdueTick, Math.max(0, next - System.currentTimeMillis()));
+        }
+    }
+    
+    private void updateStats() {
+        tvTotal.setText(String.valueOf(statsEngine.getTotal()));
+        tvCompleted.setText(String.valueOf(statsEngine.getCompleted()));
+        tvPending.setText(String.valueOf(statsEngine.getPending()));
+        tvOverdue.setText(String.valueOf(statsEngine.getOverdue()));
         
-        tvCompleted.setText(String.valueOf(completed));
-        tvPending.setText(String.valueOf(pending));
-        tvOverdue.setText(String.valueOf(overdue));
+        // Flip pending to overdue exactly when the next deadline passes
+        scheduleOverdueTick();
     }
     
     private void setupListeners() {
@@ -135,6 +203,7 @@ public class DashboardActivity extends AppCompatActivity {
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_dashboard, menu);
+        menu.findItem(R.id.action_read_metrics).setVisible(BuildConfig.DEBUG);
         return true;
     }
     
@@ -147,13 +216,20 @@ public class DashboardActivity extends AppCompatActivity {
         } else if (id == R.id.action_admin) {
             checkAdminAndOpen();
             return true;
+        } else if (id == R.id.action_storage) {
+            showCacheUsage();
+            return true;
+        } else if (id == R.id.action_read_metrics) {
+            startActivity(new Intent(this, ReadMetricsActivity.class));
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
     
     private void checkAdminAndOpen() {
-        mFirestore.collection("users").document(currentUser.getUid())
-                .get()
+        if (mFirestore == null) return;
+        ReadMetrics.getInstance().get("dashboard:admin-check",
+                        mFirestore.collection("users").document(currentUser.getUid()))
                 .addOnSuccessListener(documentSnapshot -> {
                     if (documentSnapshot.exists()) {
                         Boolean isAdmin = documentSnapshot.getBoolean("isAdmin");
@@ -166,7 +242,18 @@ public class DashboardActivity extends AppCompatActivity {
                 });
     }
     
+    private void showCacheUsage() {
+        // Sizing the cache touches the file system
+        new Thread(() -> {
+            long usedMb = FirestoreCache.getSizeBytes(getApplicationContext()) / FirestoreCache.MB;
+            long budgetMb = AssignmateApplication.getCacheBudgetBytes() / FirestoreCache.MB;
+            runOnUiThread(() -> Toast.makeText(this,
+                    "Offline cache: " + usedMb + " MB of " + budgetMb + " MB", Toast.LENGTH_LONG).show());
+        }, "cache-size").start();
+    }
+    
     private void logout() {
+        ReminderScheduler.getInstance(this).cancel();
         mAuth.signOut();
         navigateToLogin();
     }
@@ -177,4 +264,25 @@ public class DashboardActivity extends AppCompatActivity {
         startActivity(intent);
         finish();
     }
+    
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Handler delays don't advance during deep sleep, so catch up on return
+        if (statsListener != null) {
+            onOverdueTick();
+        }
+    }
+    
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        handler.removeCallbacks(overdueTick);
+        if (statsListener != null) {
+            repository.removeChangeListener(statsListener);
+        }
+        if (reminderListener != null) {
+            repository.removeChangeListener(reminderListener);
+        }
+    }
 }
\ No newline at end of file
@@ -20,19 +20,19 @@ public class LoginActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        binding = ActivityLoginBinding.inflate(getLayoutInflater());
-        setContentView(binding.getRoot());
-
         mAuth = AssignmateApplication.getAuth();
-        progressBar = binding.progressBar;
 
-        // Check if user is already signed in
+        // Signed-in users are known from cached credentials alone; skip inflating the form
         FirebaseUser currentUser = mAuth.getCurrentUser();
         if (currentUser != null) {
             navigateToDashboard();
             return;
         }
 
+        binding = ActivityLoginBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+        progressBar = binding.progressBar;
+
         binding.btnLogin.setOnClickListener(v -> attemptLogin());
         binding.tvRegister.setOnClickListener(v -> {
             startActivity(new Intent(this, RegisterActivity.class));
@@ -0,0 +1,78 @@
+package com.assignmate.activities;
+
+import android.os.Bundle;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.widget.TextView;
+import android.widget.Toast;
+import androidx.appcompat.app.AppCompatActivity;
+import com.assignmate.R;
+import com.assignmate.data.ReadMetrics;
+import java.io.File;
+import java.io.IOException;
+
+/** Debug screen listing Firestore reads, cache hits and latency per named query. */
+public class ReadMetricsActivity extends AppCompatActivity {
+    private TextView tvReport;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_read_metrics);
+        
+        getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        getSupportActionBar().setTitle("Firestore reads");
+        
+        tvReport = findViewById(R.id.tvReport);
+    }
+    
+    @Override
+    protected void onResume() {
+        super.onResume();
+        showReport();
+    }
+    
+    private void showReport() {
+        tvReport.setText(ReadMetrics.getInstance().report());
+    }
+    
+    private void dumpReport() {
+        File dir = getExternalFilesDir(null);
+        File file = new File(dir != null ? dir : getFilesDir(), "read-metrics-" + System.currentTimeMillis() + ".txt");
+        new Thread(() -> {
+            String message;
+            try {
+                ReadMetrics.getInstance().dump(file);
+                message = "Saved to " + file.getAbsolutePath();
+            } catch (IOException e) {
+                message = "Failed to save report";
+            }
+            String toast = message;
+            runOnUiThread(() -> Toast.makeText(this, toast, Toast.LENGTH_LONG).show());
+        }, "read-metrics-dump").start();
+    }
+    
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_read_metrics, menu);
+        return true;
+    }
+    
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        int id = item.getItemId();
+        if (id == android.R.id.home) {
+            onBackPressed();
+        } else if (id == R.id.action_refresh) {
+            showReport();
+        } else if (id == R.id.action_dump) {
+            dumpReport();
+        } else if (id == R.id.action_reset) {
+            ReadMetrics.getInstance().reset();
+            showReport();
+        } else {
+            return super.onOptionsItemSelected(item);
+        }
+        return true;
+    }
+}
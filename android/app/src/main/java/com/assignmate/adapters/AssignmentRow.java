@@ -0,0 +1,127 @@
+package com.assignmate.adapters;
+
+import android.content.Context;
+import androidx.core.content.ContextCompat;
+import com.assignmate.R;
+import com.assignmate.core.AssignmentText;
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Display-ready form of an {@link Assignment}: every string and color a row needs is
+ * computed once per data change, so binding is plain field assignment.
+ */
+public final class AssignmentRow {
+    public final Assignment assignment;
+    public final String id;
+    public final long stableId;
+    public final String title;
+    public final String subject;
+    public final String dueText;
+    public final String priorityText;
+    public final String statusText;
+    public final int statusColor;
+    public final int priorityColor;
+    public final boolean showComplete;
+    public final boolean pending;
+
+    private AssignmentRow(Assignment assignment, String dueText, String priorityText, String statusText,
+                          int statusColor, int priorityColor) {
+        this.assignment = assignment;
+        this.id = assignment.getId();
+        this.stableId = StableIds.of(id);
+        this.title = assignment.getTitle();
+        this.subject = assignment.getSubject();
+        this.dueText = dueText;
+        this.priorityText = priorityText;
+        this.statusText = statusText;
+        this.statusColor = statusColor;
+        this.priorityColor = priorityColor;
+        this.showComplete = !"completed".equals(assignment.getStatus());
+        this.pending = assignment.isPendingWrite();
+    }
+
+    boolean hasSameContent(AssignmentRow other) {
+        return Objects.equals(title, other.title)
+                && Objects.equals(subject, other.subject)
+                && Objects.equals(dueText, other.dueText)
+                && Objects.equals(priorityText, other.priorityText)
+                && Objects.equals(statusText, other.statusText)
+                && statusColor == other.statusColor
+                && priorityColor == other.priorityColor
+                && showComplete == other.showComplete
+                && pending == other.pending;
+    }
+
+    /**
+     * Builds rows with colors resolved once up front. Not thread-safe; confine each
+     * instance to a single background thread.
+     */
+    public static final class Formatter {
+        private final AssignmentText text = new AssignmentText(Locale.getDefault());
+        private final int colorCompleted;
+        private final int colorOverdue;
+        private final int colorInProgress;
+        private final int colorPending;
+        private final int colorPriorityHigh;
+        private final int colorPriorityMedium;
+        private final int colorPriorityLow;
+
+        public Formatter(Context context) {
+            colorCompleted = ContextCompat.getColor(context, R.color.status_completed);
+            colorOverdue = ContextCompat.getColor(context, R.color.status_overdue);
+            colorInProgress = ContextCompat.getColor(context, R.color.status_in_progress);
+            colorPending = ContextCompat.getColor(context, R.color.status_pending);
+            colorPriorityHigh = ContextCompat.getColor(context, R.color.priority_high);
+            colorPriorityMedium = ContextCompat.getColor(context, R.color.priority_medium);
+            colorPriorityLow = ContextCompat.getColor(context, R.color.priority_low);
+        }
+
+        public List<AssignmentRow> format(List<Assignment> assignments) {
+            List<AssignmentRow> rows = new ArrayList<>(assignments.size());
+            for (Assignment assignment : assignments) {
+                rows.add(format(assignment));
+            }
+            return rows;
+        }
+
+        public AssignmentRow format(Assignment assignment) {
+            String status = AssignmentText.status(assignment);
+            String priority = assignment.getPriority() != null ? assignment.getPriority() : "";
+
+            int statusColor;
+            switch (status) {
+                case "completed":
+                    statusColor = colorCompleted;
+                    break;
+                case "overdue":
+                    statusColor = colorOverdue;
+                    break;
+                case "in_progress":
+                    statusColor = colorInProgress;
+                    break;
+                default:
+                    statusColor = colorPending;
+            }
+
+            int priorityColor;
+            switch (priority) {
+                case "high":
+                    priorityColor = colorPriorityHigh;
+                    break;
+                case "medium":
+                    priorityColor = colorPriorityMedium;
+                    break;
+                default:
+                    priorityColor = colorPriorityLow;
+            }
+
+            return new AssignmentRow(assignment, text.dueText(assignment.getDueDate()),
+                    AssignmentText.priorityLabel(priority), AssignmentText.statusLabel(status),
+                    statusColor, priorityColor);
+        }
+    }
+}
@@ -1,119 +1,192 @@
 package com.assignmate.adapters;
 
-import android.view.LayoutInflater;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.Button;
-import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.cardview.widget.CardView;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.assignmate.R;
+import com.assignmate.databinding.ItemAssignmentBinding;
 import com.assignmate.models.Assignment;
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class AssignmentsAdapter extends ListAdapter<AssignmentRow, AssignmentsAdapter.ViewHolder> {
+    private static final ExecutorService FORMAT_EXECUTOR = Executors.newSingleThreadExecutor();
 
-public class AssignmentsAdapter extends RecyclerView.Adapter<AssignmentsAdapter.ViewHolder> {
-    private List<Assignment> assignments;
     private OnAssignmentClickListener listener;
-    private SimpleDateFormat dateFormat = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
+    private final AssignmentRow.Formatter formatter;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final Object PAYLOAD_SELECTION = new Object();
+    private static final float PENDING_ALPHA = 0.6f;
+    private final Set<String> selectedIds = new HashSet<>();
+    private final int colorSelected;
+    private final int colorUnselected;
+    private final RowPreinflater preinflater = new RowPreinflater(R.layout.item_assignment);
 
     public interface OnAssignmentClickListener {
         void onAssignmentClick(Assignment assignment);
+        void onAssignmentLongClick(Assignment assignment);
         void onAssignmentComplete(Assignment assignment);
         void onAssignmentDelete(Assignment assignment);
     }
 
-    public AssignmentsAdapter(List<Assignment> assignments, OnAssignmentClickListener listener) {
-        this.assignments = assignments;
+    // Diffed on a background thread so a single changed document only rebinds its own row
+    private static final DiffUtil.ItemCallback<AssignmentRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<AssignmentRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull AssignmentRow oldItem, @NonNull AssignmentRow newItem) {
+            return Objects.equals(oldItem.id, newItem.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull AssignmentRow oldItem, @NonNull AssignmentRow newItem) {
+            return oldItem.hasSameContent(newItem);
+        }
+    };
+
+    public AssignmentsAdapter(Context context, OnAssignmentClickListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
+        this.formatter = new AssignmentRow.Formatter(context);
+        this.colorSelected = ContextCompat.getColor(context, R.color.primary_light);
+        this.colorUnselected = ContextCompat.getColor(context, R.color.white);
+        // Lets the RecyclerView keep holders bound to the same document across list changes
+        setHasStableIds(true);
     }
 
-    public void updateAssignments(List<Assignment> newAssignments) {
-        this.assignments = newAssignments;
-        notifyDataSetChanged();
+    /**
+     * Inflates {@code count} rows in the background while the first data loads and
+     * lets the pool keep that many spare, so flings reuse instead of inflating.
+     */
+    public void preinflate(RecyclerView recyclerView, int count) {
+        preinflater.preinflate(recyclerView, count);
+        recyclerView.getRecycledViewPool().setMaxRecycledViews(0, count);
     }
 
-    @NonNull
     @Override
-    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.item_assignment, parent, false);
-        return new ViewHolder(view);
+    public long getItemId(int position) {
+        return getItem(position).stableId;
     }
 
-    @Override
-    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Assignment assignment = assignments.get(position);
-        
-        holder.tvTitle.setText(assignment.getTitle());
-        holder.tvSubject.setText(assignment.getSubject());
-        holder.tvDueDate.setText("Due: " + dateFormat.format(assignment.getDueDate()));
-        holder.tvPriority.setText(assignment.getPriority().substring(0, 1).toUpperCase() + 
-                                   assignment.getPriority().substring(1));
-        holder.tvStatus.setText(assignment.getStatus().replace("_", " "));
-        
-        // Status color
-        int statusColor;
-        switch (assignment.getStatus()) {
-            case "completed":
-                statusColor = holder.itemView.getContext().getResources().getColor(R.color.status_completed);
-                break;
-            case "overdue":
-                statusColor = holder.itemView.getContext().getResources().getColor(R.color.status_overdue);
-                break;
-            case "in_progress":
-                statusColor = holder.itemView.getContext().getResources().getColor(R.color.status_in_progress);
-                break;
-            default:
-                statusColor = holder.itemView.getContext().getResources().getColor(R.color.status_pending);
+    public void toggleSelection(String assignmentId) {
+        if (!selectedIds.remove(assignmentId)) {
+            selectedIds.add(assignmentId);
         }
-        holder.tvStatus.setTextColor(statusColor);
-        
-        // Priority color
-        int priorityColor;
-        switch (assignment.getPriority()) {
-            case "high":
-                priorityColor = holder.itemView.getContext().getResources().getColor(R.color.priority_high);
-                break;
-            case "medium":
-                priorityColor = holder.itemView.getContext().getResources().getColor(R.color.priority_medium);
+        List<AssignmentRow> rows = getCurrentList();
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).id.equals(assignmentId)) {
+                notifyItemChanged(i, PAYLOAD_SELECTION);
                 break;
-            default:
-                priorityColor = holder.itemView.getContext().getResources().getColor(R.color.priority_low);
+            }
         }
-        holder.tvPriority.setTextColor(priorityColor);
-        
-        // Show/hide complete button
-        if ("completed".equals(assignment.getStatus())) {
-            holder.btnComplete.setVisibility(View.GONE);
+    }
+
+    public void clearSelection() {
+        if (selectedIds.isEmpty()) return;
+        selectedIds.clear();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+    }
+
+    public List<String> getSelectedIds() {
+        return new ArrayList<>(selectedIds);
+    }
+
+    public int getSelectedCount() {
+        return selectedIds.size();
+    }
+
+    /**
+     * Formats rows on a background thread, then submits them for diffing.
+     * {@code onCommitted} runs once the new rows are displayed.
+     */
+    public void submitAssignments(List<Assignment> assignments, Runnable onCommitted) {
+        FORMAT_EXECUTOR.execute(() -> {
+            List<AssignmentRow> rows = formatter.format(assignments);
+            mainHandler.post(() -> submitList(rows, onCommitted));
+        });
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ViewHolder holder = new ViewHolder(ItemAssignmentBinding.bind(preinflater.take(parent)));
+
+        // Listeners resolve the row at click time so binding allocates nothing
+        holder.itemView.setOnClickListener(v -> {
+            AssignmentRow row = rowAt(holder);
+            if (row != null) listener.onAssignmentClick(row.assignment);
+        });
+        holder.binding.btnComplete.setOnClickListener(v -> {
+            AssignmentRow row = rowAt(holder);
+            if (row != null) listener.onAssignmentComplete(row.assignment);
+        });
+        holder.binding.btnDelete.setOnClickListener(v -> {
+            AssignmentRow row = rowAt(holder);
+            if (row != null) listener.onAssignmentDelete(row.assignment);
+        });
+        holder.itemView.setOnLongClickListener(v -> {
+            AssignmentRow row = rowAt(holder);
+            if (row == null) return false;
+            listener.onAssignmentLongClick(row.assignment);
+            return true;
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
         } else {
-            holder.btnComplete.setVisibility(View.VISIBLE);
+            bindSelection(holder, getItem(position));
         }
-        
-        holder.itemView.setOnClickListener(v -> listener.onAssignmentClick(assignment));
-        holder.btnComplete.setOnClickListener(v -> listener.onAssignmentComplete(assignment));
-        holder.btnDelete.setOnClickListener(v -> listener.onAssignmentDelete(assignment));
     }
 
     @Override
-    public int getItemCount() {
-        return assignments.size();
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        AssignmentRow row = getItem(position);
+        ItemAssignmentBinding binding = holder.binding;
+
+        binding.tvTitle.setText(row.title);
+        binding.tvSubject.setText(row.subject);
+        binding.tvDueDate.setText(row.dueText);
+        binding.tvPriority.setText(row.priorityText);
+        binding.tvPriority.setTextColor(row.priorityColor);
+        binding.tvStatus.setText(row.statusText);
+        binding.tvStatus.setTextColor(row.statusColor);
+        binding.btnComplete.setVisibility(row.showComplete ? View.VISIBLE : View.GONE);
+        // Dimmed until the server acknowledges the local change
+        holder.itemView.setAlpha(row.pending ? PENDING_ALPHA : 1f);
+        bindSelection(holder, row);
+    }
+
+    private void bindSelection(ViewHolder holder, AssignmentRow row) {
+        ((CardView) holder.itemView).setCardBackgroundColor(
+                selectedIds.contains(row.id) ? colorSelected : colorUnselected);
+    }
+
+    private AssignmentRow rowAt(ViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        return position == RecyclerView.NO_POSITION ? null : getItem(position);
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
-        TextView tvTitle, tvSubject, tvDueDate, tvPriority, tvStatus;
-        Button btnComplete, btnDelete;
-
-        ViewHolder(View itemView) {
-            super(itemView);
-            tvTitle = itemView.findViewById(R.id.tvTitle);
-            tvSubject = itemView.findViewById(R.id.tvSubject);
-            tvDueDate = itemView.findViewById(R.id.tvDueDate);
-            tvPriority = itemView.findViewById(R.id.tvPriority);
-            tvStatus = itemView.findViewById(R.id.tvStatus);
-            btnComplete = itemView.findViewById(R.id.btnComplete);
-            btnDelete = itemView.findViewById(R.id.btnDelete);
+        final ItemAssignmentBinding binding;
+
+        ViewHolder(ItemAssignmentBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
         }
     }
 }
\ No newline at end of file
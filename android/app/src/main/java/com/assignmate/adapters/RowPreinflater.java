@@ -0,0 +1,37 @@
+package com.assignmate.adapters;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.LayoutRes;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Inflates row views on a background thread ahead of the first bind, so opening a
+ * list doesn't spend its first frames inflating. Views are handed out in
+ * {@code onCreateViewHolder}; once they run out rows inflate inline as usual.
+ * Must be used on the main thread.
+ */
+final class RowPreinflater {
+    @LayoutRes
+    private final int layout;
+    private final Deque<View> views = new ArrayDeque<>();
+
+    RowPreinflater(@LayoutRes int layout) {
+        this.layout = layout;
+    }
+
+    void preinflate(ViewGroup parent, int count) {
+        AsyncLayoutInflater inflater = new AsyncLayoutInflater(parent.getContext());
+        for (int i = 0; i < count; i++) {
+            inflater.inflate(layout, parent, (view, resid, p) -> views.add(view));
+        }
+    }
+
+    View take(ViewGroup parent) {
+        View view = views.poll();
+        return view != null ? view : LayoutInflater.from(parent.getContext()).inflate(layout, parent, false);
+    }
+}
@@ -0,0 +1,22 @@
+package com.assignmate.adapters;
+
+/** Stable RecyclerView item ids derived from Firestore document ids. */
+final class StableIds {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private StableIds() {
+    }
+
+    /** 64-bit FNV-1a of the id, so collisions are negligible at any realistic list size. */
+    static long of(String documentId) {
+        if (documentId == null) return 0;
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < documentId.length(); i++) {
+            hash ^= documentId.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        // RecyclerView.NO_ID is -1
+        return hash == -1 ? 0 : hash;
+    }
+}
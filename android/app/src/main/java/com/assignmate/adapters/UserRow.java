@@ -0,0 +1,70 @@
+package com.assignmate.adapters;
+
+import android.content.Context;
+import androidx.core.content.ContextCompat;
+import com.assignmate.models.User;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Display-ready form of a {@link User}, formatted once per data change so binding
+ * is plain field assignment.
+ */
+public final class UserRow {
+    public final User user;
+    public final String id;
+    public final long stableId;
+    public final String name;
+    public final String email;
+    public final String joinedText;
+    public final String assignmentsText;
+    public final String toggleAdminText;
+    public final int toggleAdminColor;
+
+    private UserRow(User user, String joinedText, String toggleAdminText, int toggleAdminColor) {
+        this.user = user;
+        this.id = user.getId();
+        this.stableId = StableIds.of(id);
+        this.name = user.getName();
+        this.email = user.getEmail();
+        this.joinedText = joinedText;
+        this.assignmentsText = user.getAssignmentCount() + " assignments";
+        this.toggleAdminText = toggleAdminText;
+        this.toggleAdminColor = toggleAdminColor;
+    }
+
+    boolean hasSameContent(UserRow other) {
+        return Objects.equals(name, other.name)
+                && Objects.equals(email, other.email)
+                && Objects.equals(joinedText, other.joinedText)
+                && Objects.equals(toggleAdminText, other.toggleAdminText);
+    }
+
+    /** Not thread-safe; confine each instance to a single background thread. */
+    public static final class Formatter {
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
+        private final int colorRemoveAdmin;
+        private final int colorMakeAdmin;
+
+        public Formatter(Context context) {
+            colorRemoveAdmin = ContextCompat.getColor(context, android.R.color.holo_red_light);
+            colorMakeAdmin = ContextCompat.getColor(context, android.R.color.holo_green_light);
+        }
+
+        public List<UserRow> format(List<User> users) {
+            List<UserRow> rows = new ArrayList<>(users.size());
+            for (User user : users) {
+                String joinedText = user.getCreatedAt() != null
+                        ? "Joined: " + dateFormat.format(user.getCreatedAt())
+                        : "";
+                rows.add(user.isAdmin()
+                        ? new UserRow(user, joinedText, "Remove Admin", colorRemoveAdmin)
+                        : new UserRow(user, joinedText, "Make Admin", colorMakeAdmin));
+            }
+            return rows;
+        }
+    }
+}
@@ -1,85 +1,159 @@
 package com.assignmate.adapters;
 
-import android.view.LayoutInflater;
-import android.view.View;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.ViewGroup;
-import android.widget.Button;
-import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.assignmate.R;
+import com.assignmate.databinding.ItemUserBinding;
 import com.assignmate.models.User;
-import java.text.SimpleDateFormat;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class UsersAdapter extends ListAdapter<UserRow, UsersAdapter.ViewHolder> {
+    private static final ExecutorService FORMAT_EXECUTOR = Executors.newSingleThreadExecutor();
+    // Rebinds only the assignment count of a row
+    private static final Object PAYLOAD_COUNT = new Object();
 
-public class UsersAdapter extends RecyclerView.Adapter<UsersAdapter.ViewHolder> {
-    private List<User> users;
     private OnUserClickListener listener;
-    private SimpleDateFormat dateFormat = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
+    private final UserRow.Formatter formatter;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, String> assignmentCountTexts = new HashMap<>();
+    private final RowPreinflater preinflater = new RowPreinflater(R.layout.item_user);
 
     public interface OnUserClickListener {
         void onUserClick(User user);
         void onToggleAdmin(User user);
     }
 
-    public UsersAdapter(List<User> users, OnUserClickListener listener) {
-        this.users = users;
+    private static final DiffUtil.ItemCallback<UserRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<UserRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull UserRow oldItem, @NonNull UserRow newItem) {
+            return Objects.equals(oldItem.id, newItem.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull UserRow oldItem, @NonNull UserRow newItem) {
+            return oldItem.hasSameContent(newItem);
+        }
+    };
+
+    public UsersAdapter(Context context, OnUserClickListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
+        this.formatter = new UserRow.Formatter(context);
+        setHasStableIds(true);
+    }
+
+    /** Inflates {@code count} rows in the background while the first page loads. */
+    public void preinflate(RecyclerView recyclerView, int count) {
+        preinflater.preinflate(recyclerView, count);
+        recyclerView.getRecycledViewPool().setMaxRecycledViews(0, count);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).stableId;
     }
 
     public void updateUsers(List<User> newUsers) {
-        this.users = newUsers;
-        notifyDataSetChanged();
+        FORMAT_EXECUTOR.execute(() -> {
+            List<UserRow> rows = formatter.format(newUsers);
+            mainHandler.post(() -> submitList(rows));
+        });
+    }
+
+    // Counts are kept beside the list so they survive page snapshots rebuilding User objects
+    public void updateAssignmentCounts(Map<String, Long> counts) {
+        FORMAT_EXECUTOR.execute(() -> {
+            Map<String, String> texts = new HashMap<>(counts.size());
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                texts.put(entry.getKey(), entry.getValue() + " assignments");
+            }
+            mainHandler.post(() -> applyAssignmentCountTexts(texts));
+        });
+    }
+
+    private void applyAssignmentCountTexts(Map<String, String> texts) {
+        List<UserRow> rows = getCurrentList();
+        for (Map.Entry<String, String> entry : texts.entrySet()) {
+            if (!entry.getValue().equals(assignmentCountTexts.put(entry.getKey(), entry.getValue()))) {
+                int position = indexOf(rows, entry.getKey());
+                if (position >= 0) notifyItemChanged(position, PAYLOAD_COUNT);
+            }
+        }
+    }
+
+    private static int indexOf(List<UserRow> rows, String id) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).id.equals(id)) return i;
+        }
+        return -1;
     }
 
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.item_user, parent, false);
-        return new ViewHolder(view);
+        ViewHolder holder = new ViewHolder(ItemUserBinding.bind(preinflater.take(parent)));
+
+        // Listeners resolve the row at click time so binding allocates nothing
+        holder.itemView.setOnClickListener(v -> {
+            UserRow row = rowAt(holder);
+            if (row != null) listener.onUserClick(row.user);
+        });
+        holder.binding.btnToggleAdmin.setOnClickListener(v -> {
+            UserRow row = rowAt(holder);
+            if (row != null) listener.onToggleAdmin(row.user);
+        });
+        return holder;
     }
 
     @Override
-    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        User user = users.get(position);
-        
-        holder.tvName.setText(user.getName());
-        holder.tvEmail.setText(user.getEmail());
-        holder.tvCreated.setText("Joined: " + dateFormat.format(user.getCreatedAt()));
-        holder.tvAssignments.setText(user.getAssignmentCount() + " assignments");
-        
-        if (user.isAdmin()) {
-            holder.btnToggleAdmin.setText("Remove Admin");
-            holder.btnToggleAdmin.setBackgroundColor(holder.itemView.getContext().getResources()
-                    .getColor(android.R.color.holo_red_light));
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
         } else {
-            holder.btnToggleAdmin.setText("Make Admin");
-            holder.btnToggleAdmin.setBackgroundColor(holder.itemView.getContext().getResources()
-                    .getColor(android.R.color.holo_green_light));
+            bindAssignmentCount(holder.binding, getItem(position));
         }
-        
-        holder.itemView.setOnClickListener(v -> listener.onUserClick(user));
-        holder.btnToggleAdmin.setOnClickListener(v -> listener.onToggleAdmin(user));
     }
 
     @Override
-    public int getItemCount() {
-        return users.size();
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        UserRow row = getItem(position);
+        ItemUserBinding binding = holder.binding;
+        
+        binding.tvName.setText(row.name);
+        binding.tvEmail.setText(row.email);
+        binding.tvCreated.setText(row.joinedText);
+        bindAssignmentCount(binding, row);
+        binding.btnToggleAdmin.setText(row.toggleAdminText);
+        binding.btnToggleAdmin.setBackgroundColor(row.toggleAdminColor);
+    }
+
+    private void bindAssignmentCount(ItemUserBinding binding, UserRow row) {
+        String countText = assignmentCountTexts.get(row.id);
+        binding.tvAssignments.setText(countText != null ? countText : row.assignmentsText);
+    }
+
+    private UserRow rowAt(ViewHolder holder) {
+        int position = holder.getBindingAdapterPosition();
+        return position == RecyclerView.NO_POSITION ? null : getItem(position);
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
-        TextView tvName, tvEmail, tvCreated, tvAssignments;
-        Button btnToggleAdmin;
-
-        ViewHolder(View itemView) {
-            super(itemView);
-            tvName = itemView.findViewById(R.id.tvName);
-            tvEmail = itemView.findViewById(R.id.tvEmail);
-            tvCreated = itemView.findViewById(R.id.tvCreated);
-            tvAssignments = itemView.findViewById(R.id.tvAssignments);
-            btnToggleAdmin = itemView.findViewById(R.id.btnToggleAdmin);
+        final ItemUserBinding binding;
+
+        ViewHolder(ItemUserBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.assignmate.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import com.assignmate.BuildConfig;
+import com.assignmate.core.DateWindows;
+import com.assignmate.models.UserMapper;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records app sessions in shared preferences and writes them to Firestore at most
+ * once per flush interval, plus once on the first session of each calendar day so
+ * "active today" queries stay exact. Routine navigation and configuration changes
+ * therefore neither write nor wake up listeners on the target document.
+ */
+public class ActivityTracker {
+    private static final String TAG = "ActivityTracker";
+    private static final String PREFS = "activity_tracker";
+    private static final String KEY_LAST_FLUSH = "lastFlushAt_";
+    private static final String KEY_PENDING_SESSIONS = "pendingSessions_";
+    public static final String FIELD_SESSION_COUNT = "sessionCount";
+    private static ActivityTracker instance;
+
+    private final SharedPreferences prefs;
+    private final String collection;
+    private final String timestampField;
+    private final long flushIntervalMs;
+    private final DateWindows dateWindows = new DateWindows();
+
+    /**
+     * @param collection documents are written at {@code collection/{userId}}, either the
+     *                   user profile or a separate presence collection
+     */
+    public ActivityTracker(Context context, String collection, String timestampField, long flushIntervalMs) {
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        this.collection = collection;
+        this.timestampField = timestampField;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /** Writes lastLoginAt on the user profile, which admin activity queries read. */
+    public static synchronized ActivityTracker getInstance(Context context) {
+        if (instance == null) {
+            instance = new ActivityTracker(context, "users", UserMapper.FIELD_LAST_LOGIN_AT,
+                    TimeUnit.MINUTES.toMillis(BuildConfig.ACTIVITY_FLUSH_INTERVAL_MINUTES));
+        }
+        return instance;
+    }
+
+    /** Counts a session for {@code userId} and flushes if the interval or day has rolled over. */
+    public void recordSession(FirebaseFirestore firestore, String userId) {
+        int pending = prefs.getInt(KEY_PENDING_SESSIONS + userId, 0) + 1;
+        long lastFlush = prefs.getLong(KEY_LAST_FLUSH + userId, 0);
+        long now = System.currentTimeMillis();
+        boolean due = now - lastFlush >= flushIntervalMs
+                || dateWindows.startOfDay(now) != dateWindows.startOfDay(lastFlush);
+        if (!due) {
+            prefs.edit().putInt(KEY_PENDING_SESSIONS + userId, pending).apply();
+            return;
+        }
+
+        // Cleared up front so concurrent sessions don't flush twice; restored on failure
+        prefs.edit()
+                .putLong(KEY_LAST_FLUSH + userId, now)
+                .putInt(KEY_PENDING_SESSIONS + userId, 0)
+                .apply();
+
+        Map<String, Object> data = new HashMap<>();
+        data.put(timestampField, new Date(now));
+        data.put(FIELD_SESSION_COUNT, FieldValue.increment(pending));
+        firestore.collection(collection).document(userId)
+                .set(data, SetOptions.merge())
+                .addOnFailureListener(e -> {
+                    Log.w(TAG, "Failed to flush activity for " + userId, e);
+                    prefs.edit()
+                            .putLong(KEY_LAST_FLUSH + userId, lastFlush)
+                            .putInt(KEY_PENDING_SESSIONS + userId,
+                                    prefs.getInt(KEY_PENDING_SESSIONS + userId, 0) + pending)
+                            .apply();
+                });
+    }
+}
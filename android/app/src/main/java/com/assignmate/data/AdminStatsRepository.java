@@ -0,0 +1,91 @@
+package com.assignmate.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.assignmate.core.DateWindows;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import java.util.Date;
+
+/**
+ * Admin-wide totals obtained through count aggregations, so the admin screen costs
+ * three aggregate reads per refresh regardless of how many users or assignments
+ * exist. Refreshes on a fixed interval while started.
+ */
+public class AdminStatsRepository {
+    private static final String TAG = "AdminStatsRepository";
+    private static final long DEFAULT_REFRESH_INTERVAL_MS = 60 * 1000;
+
+    public static class AdminStats {
+        public final long totalUsers;
+        public final long totalAssignments;
+        public final long activeToday;
+
+        AdminStats(long totalUsers, long totalAssignments, long activeToday) {
+            this.totalUsers = totalUsers;
+            this.totalAssignments = totalAssignments;
+            this.activeToday = activeToday;
+        }
+    }
+
+    public interface Listener {
+        void onStatsLoaded(AdminStats stats);
+    }
+
+    private final FirebaseFirestore firestore;
+    private final long refreshIntervalMs;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable refreshRunnable = this::refresh;
+    private final DateWindows dateWindows = new DateWindows();
+    private Listener listener;
+
+    public AdminStatsRepository(FirebaseFirestore firestore) {
+        this(firestore, DEFAULT_REFRESH_INTERVAL_MS);
+    }
+
+    public AdminStatsRepository(FirebaseFirestore firestore, long refreshIntervalMs) {
+        this.firestore = firestore;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    public void start(Listener listener) {
+        this.listener = listener;
+        handler.removeCallbacks(refreshRunnable);
+        refresh();
+    }
+
+    public void stop() {
+        listener = null;
+        handler.removeCallbacks(refreshRunnable);
+    }
+
+    public void refresh() {
+        handler.removeCallbacks(refreshRunnable);
+
+        ReadMetrics metrics = ReadMetrics.getInstance();
+        Task<AggregateQuerySnapshot> users = metrics.count("admin:total-users",
+                firestore.collection("users").count());
+        Task<AggregateQuerySnapshot> assignments = metrics.count("admin:total-assignments",
+                firestore.collection("assignments").count());
+        Task<AggregateQuerySnapshot> active = metrics.count("admin:active-today", firestore.collection("users")
+                .whereGreaterThanOrEqualTo("lastLoginAt", new Date(dateWindows.startOfDay(System.currentTimeMillis())))
+                .count());
+
+        Tasks.whenAllComplete(users, assignments, active).addOnCompleteListener(done -> {
+            if (listener == null) return;
+            if (users.isSuccessful() && assignments.isSuccessful() && active.isSuccessful()) {
+                listener.onStatsLoaded(new AdminStats(
+                        users.getResult().getCount(),
+                        assignments.getResult().getCount(),
+                        active.getResult().getCount()));
+            } else {
+                Log.w(TAG, "Failed to load admin stats");
+            }
+            handler.removeCallbacks(refreshRunnable);
+            handler.postDelayed(refreshRunnable, refreshIntervalMs);
+        });
+    }
+}
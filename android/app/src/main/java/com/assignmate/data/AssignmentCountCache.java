@@ -0,0 +1,136 @@
+package com.assignmate.data;
+
+import android.os.SystemClock;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user assignment counts for the admin console. Counts are read from the
+ * {@link UserStats} documents, up to 30 users per query; users without one yet,
+ * or whose document holds only deltas, fall back to a server-side count
+ * aggregation. Results are cached so
+ * user-document changes don't trigger re-counting.
+ */
+public class AssignmentCountCache {
+    private static final long DEFAULT_TTL_MS = 5 * 60 * 1000;
+    // Firestore's limit for whereIn
+    private static final int MAX_IN_VALUES = 30;
+
+    public interface Callback {
+        void onCountsLoaded(Map<String, Long> counts);
+    }
+
+    private static class Entry {
+        final long count;
+        final long loadedAt;
+
+        Entry(long count, long loadedAt) {
+            this.count = count;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final FirebaseFirestore firestore;
+    private final long ttlMs;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public AssignmentCountCache(FirebaseFirestore firestore) {
+        this(firestore, DEFAULT_TTL_MS);
+    }
+
+    public AssignmentCountCache(FirebaseFirestore firestore, long ttlMs) {
+        this.firestore = firestore;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Delivers counts for every requested user in a single callback. Only users
+     * that are missing or stale in the cache are counted on the server.
+     */
+    public void loadCounts(List<String> userIds, Callback callback) {
+        long now = SystemClock.elapsedRealtime();
+        List<String> missing = new ArrayList<>();
+        for (String userId : userIds) {
+            Entry entry = entries.get(userId);
+            if (entry == null || now - entry.loadedAt > ttlMs) {
+                missing.add(userId);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            callback.onCountsLoaded(cachedCounts(userIds));
+            return;
+        }
+
+        List<Task<QuerySnapshot>> tasks = new ArrayList<>();
+        for (int start = 0; start < missing.size(); start += MAX_IN_VALUES) {
+            tasks.add(ReadMetrics.getInstance().get("admin:user-stats", firestore.collection(UserStats.COLLECTION)
+                    .whereIn(FieldPath.documentId(),
+                            missing.subList(start, Math.min(start + MAX_IN_VALUES, missing.size())))));
+        }
+
+        Tasks.whenAllComplete(tasks).addOnCompleteListener(done -> {
+            long loadedAt = SystemClock.elapsedRealtime();
+            List<String> uncounted = new ArrayList<>(missing);
+            for (Task<QuerySnapshot> task : tasks) {
+                if (!task.isSuccessful() || task.getResult() == null) continue;
+                for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                    // Delta-only documents would show too few assignments, even negative
+                    if (!UserStats.hasBaseline(doc)) continue;
+                    entries.put(doc.getId(), new Entry(UserStats.fromSnapshot(doc).total, loadedAt));
+                    uncounted.remove(doc.getId());
+                }
+            }
+            if (uncounted.isEmpty()) {
+                callback.onCountsLoaded(cachedCounts(userIds));
+            } else {
+                countOnServer(uncounted, () -> callback.onCountsLoaded(cachedCounts(userIds)));
+            }
+        });
+    }
+
+    /** Fallback for users whose stats document is missing or has no baseline yet. */
+    private void countOnServer(List<String> userIds, Runnable onDone) {
+        List<Task<AggregateQuerySnapshot>> tasks = new ArrayList<>();
+        for (String userId : userIds) {
+            tasks.add(ReadMetrics.getInstance().count("admin:user-counts", firestore.collection("assignments")
+                    .whereEqualTo("userId", userId)
+                    .count()));
+        }
+
+        Tasks.whenAllComplete(tasks).addOnCompleteListener(done -> {
+            long loadedAt = SystemClock.elapsedRealtime();
+            for (int i = 0; i < tasks.size(); i++) {
+                Task<AggregateQuerySnapshot> task = tasks.get(i);
+                if (task.isSuccessful() && task.getResult() != null) {
+                    entries.put(userIds.get(i), new Entry(task.getResult().getCount(), loadedAt));
+                }
+            }
+            onDone.run();
+        });
+    }
+
+    public void invalidate() {
+        entries.clear();
+    }
+
+    private Map<String, Long> cachedCounts(List<String> userIds) {
+        Map<String, Long> counts = new HashMap<>();
+        for (String userId : userIds) {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                counts.put(userId, entry.count);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,229 @@
+package com.assignmate.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * On-device copy of the signed-in user's assignments. All methods touch disk
+ * and must be called off the main thread. There is one instance per process so
+ * every reader and writer shares a single connection and its locking.
+ */
+public class AssignmentDatabase extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "assignmate.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_ASSIGNMENTS = "assignments";
+    private static final String TABLE_SYNC_STATE = "sync_state";
+
+    private static final String COL_ID = "id";
+    private static final String COL_USER_ID = "user_id";
+    private static final String COL_TITLE = "title";
+    private static final String COL_DESCRIPTION = "description";
+    private static final String COL_SUBJECT = "subject";
+    private static final String COL_DUE_DATE = "due_date";
+    private static final String COL_PRIORITY = "priority";
+    private static final String COL_STATUS = "status";
+    private static final String COL_CREATED_AT = "created_at";
+    private static final String COL_UPDATED_AT = "updated_at";
+    private static final String COL_WATERMARK = "watermark";
+
+    private static final String[] ASSIGNMENT_COLUMNS = {
+            COL_ID, COL_USER_ID, COL_TITLE, COL_DESCRIPTION, COL_SUBJECT,
+            COL_DUE_DATE, COL_PRIORITY, COL_STATUS, COL_CREATED_AT, COL_UPDATED_AT
+    };
+
+    private static AssignmentDatabase instance;
+
+    private AssignmentDatabase(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    public static synchronized AssignmentDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = new AssignmentDatabase(context);
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_ASSIGNMENTS + " ("
+                + COL_ID + " TEXT PRIMARY KEY, "
+                + COL_USER_ID + " TEXT NOT NULL, "
+                + COL_TITLE + " TEXT, "
+                + COL_DESCRIPTION + " TEXT, "
+                + COL_SUBJECT + " TEXT, "
+                + COL_DUE_DATE + " INTEGER, "
+                + COL_PRIORITY + " TEXT, "
+                + COL_STATUS + " TEXT, "
+                + COL_CREATED_AT + " INTEGER, "
+                + COL_UPDATED_AT + " INTEGER)");
+        db.execSQL("CREATE INDEX idx_assignments_user_due ON " + TABLE_ASSIGNMENTS
+                + " (" + COL_USER_ID + ", " + COL_DUE_DATE + ")");
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + " ("
+                + COL_USER_ID + " TEXT PRIMARY KEY, "
+                + COL_WATERMARK + " INTEGER NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // The table is a cache of Firestore; dropping it only costs a full resync
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_ASSIGNMENTS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SYNC_STATE);
+        onCreate(db);
+    }
+
+    public List<Assignment> getAssignments(String userId) {
+        Cursor cursor = getReadableDatabase().query(TABLE_ASSIGNMENTS, ASSIGNMENT_COLUMNS,
+                COL_USER_ID + " = ?", new String[]{userId},
+                null, null, COL_DUE_DATE + " ASC");
+        return readAssignments(cursor);
+    }
+
+    public List<Assignment> getAssignmentsDueBetween(String userId, Date start, Date end) {
+        Cursor cursor = getReadableDatabase().query(TABLE_ASSIGNMENTS, ASSIGNMENT_COLUMNS,
+                COL_USER_ID + " = ? AND " + COL_DUE_DATE + " >= ? AND " + COL_DUE_DATE + " <= ?",
+                new String[]{userId, String.valueOf(start.getTime()), String.valueOf(end.getTime())},
+                null, null, COL_DUE_DATE + " ASC");
+        return readAssignments(cursor);
+    }
+
+    /**
+     * Keyset page of assignments strictly before ({@code older}) or after the
+     * (dueDate, id) cursor, returned in ascending due-date order. Assignments without
+     * a due date never match, mirroring Firestore's orderBy("dueDate").
+     */
+    public List<Assignment> getAssignmentPage(String userId, long cursorDue, String cursorId,
+                                              boolean older, int limit) {
+        String due = String.valueOf(cursorDue);
+        String selection = COL_USER_ID + " = ? AND (" + COL_DUE_DATE + (older ? " < ?" : " > ?")
+                + " OR (" + COL_DUE_DATE + " = ? AND " + COL_ID + (older ? " < ?" : " > ?") + "))";
+        String direction = older ? " DESC" : " ASC";
+        Cursor cursor = getReadableDatabase().query(TABLE_ASSIGNMENTS, ASSIGNMENT_COLUMNS,
+                selection, new String[]{userId, due, due, cursorId},
+                null, null, COL_DUE_DATE + direction + ", " + COL_ID + direction,
+                String.valueOf(limit));
+        List<Assignment> page = readAssignments(cursor);
+        if (older) {
+            Collections.reverse(page);
+        }
+        return page;
+    }
+
+    /** Assignments between two (dueDate, id) keys, both inclusive, in due-date order. */
+    public List<Assignment> getAssignmentRange(String userId, long startDue, String startId,
+                                               long endDue, String endId) {
+        String start = String.valueOf(startDue);
+        String end = String.valueOf(endDue);
+        String selection = COL_USER_ID + " = ?"
+                + " AND (" + COL_DUE_DATE + " > ? OR (" + COL_DUE_DATE + " = ? AND " + COL_ID + " >= ?))"
+                + " AND (" + COL_DUE_DATE + " < ? OR (" + COL_DUE_DATE + " = ? AND " + COL_ID + " <= ?))";
+        Cursor cursor = getReadableDatabase().query(TABLE_ASSIGNMENTS, ASSIGNMENT_COLUMNS,
+                selection, new String[]{userId, start, start, startId, end, end, endId},
+                null, null, COL_DUE_DATE + " ASC, " + COL_ID + " ASC");
+        return readAssignments(cursor);
+    }
+
+    public void upsertAll(List<Assignment> assignments) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (Assignment assignment : assignments) {
+                db.insertWithOnConflict(TABLE_ASSIGNMENTS, null, toValues(assignment),
+                        SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void deleteAll(List<String> ids) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String id : ids) {
+                db.delete(TABLE_ASSIGNMENTS, COL_ID + " = ?", new String[]{id});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public long getWatermark(String userId) {
+        Cursor cursor = getReadableDatabase().query(TABLE_SYNC_STATE, new String[]{COL_WATERMARK},
+                COL_USER_ID + " = ?", new String[]{userId}, null, null, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    public void setWatermark(String userId, long watermark) {
+        ContentValues values = new ContentValues();
+        values.put(COL_USER_ID, userId);
+        values.put(COL_WATERMARK, watermark);
+        getWritableDatabase().insertWithOnConflict(TABLE_SYNC_STATE, null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static List<Assignment> readAssignments(Cursor cursor) {
+        List<Assignment> assignments = new ArrayList<>(cursor.getCount());
+        try {
+            while (cursor.moveToNext()) {
+                Assignment assignment = new Assignment();
+                assignment.setId(cursor.getString(0));
+                assignment.setUserId(cursor.getString(1));
+                assignment.setTitle(cursor.getString(2));
+                assignment.setDescription(cursor.getString(3));
+                assignment.setSubject(cursor.getString(4));
+                assignment.setDueDate(readDate(cursor, 5));
+                assignment.setPriority(cursor.getString(6));
+                assignment.setStatus(cursor.getString(7));
+                assignment.setCreatedAt(readDate(cursor, 8));
+                assignment.setUpdatedAt(readDate(cursor, 9));
+                assignments.add(assignment);
+            }
+        } finally {
+            cursor.close();
+        }
+        return assignments;
+    }
+
+    private static Date readDate(Cursor cursor, int column) {
+        return cursor.isNull(column) ? null : new Date(cursor.getLong(column));
+    }
+
+    private static ContentValues toValues(Assignment assignment) {
+        ContentValues values = new ContentValues();
+        values.put(COL_ID, assignment.getId());
+        values.put(COL_USER_ID, assignment.getUserId());
+        values.put(COL_TITLE, assignment.getTitle());
+        values.put(COL_DESCRIPTION, assignment.getDescription());
+        values.put(COL_SUBJECT, assignment.getSubject());
+        putDate(values, COL_DUE_DATE, assignment.getDueDate());
+        values.put(COL_PRIORITY, assignment.getPriority());
+        values.put(COL_STATUS, assignment.getStatus());
+        putDate(values, COL_CREATED_AT, assignment.getCreatedAt());
+        putDate(values, COL_UPDATED_AT, assignment.getUpdatedAt());
+        return values;
+    }
+
+    private static void putDate(ContentValues values, String column, Date date) {
+        if (date == null) {
+            values.putNull(column);
+        } else {
+            values.put(column, date.getTime());
+        }
+    }
+}
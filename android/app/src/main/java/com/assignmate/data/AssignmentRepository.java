@@ -0,0 +1,674 @@
+package com.assignmate.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.lifecycle.LifecycleOwner;
+import com.assignmate.core.AssignmentLists;
+import com.assignmate.core.SyncReconciliation;
+import com.assignmate.models.Assignment;
+import com.assignmate.models.AssignmentMapper;
+import com.assignmate.utils.AssignmateApplication;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+/**
+ * Single source of truth for the signed-in user's assignments. Screens read from
+ * the local database and a single Firestore listener pulls in only documents whose
+ * {@code updatedAt} is newer than the last synced watermark. Deletions made while
+ * no listener was attached are caught by a periodic reconciliation: a server count
+ * (one read) and, only when it falls short of the local copy, a check of the ids.
+ *
+ * <p>Writes made through the repository are applied optimistically: listeners see
+ * the new state immediately, flagged with {@link Assignment#isPendingWrite()} until
+ * Firestore acknowledges it, and the overlay is dropped once the write settles so a
+ * rejected write falls back to whatever the server holds.
+ */
+public class AssignmentRepository {
+    private static final String TAG = "AssignmentRepository";
+    private static final long RECONCILE_INTERVAL_MS = 15L * 60 * 1000;
+    private static AssignmentRepository instance;
+
+    public interface Listener {
+        void onAssignmentsChanged(List<Assignment> assignments);
+
+        default void onSyncError(Exception e) {
+        }
+    }
+
+    public interface PageListener {
+        /** @param exhausted whether the store had no more rows past this page */
+        void onPageLoaded(List<Assignment> page, boolean exhausted);
+    }
+
+    /** Receives the initial contents once, then only the documents that changed. */
+    public interface ChangeListener {
+        void onAssignmentsReset(List<Assignment> assignments);
+
+        void onAssignmentsChanged(List<Assignment> upserts, List<String> removedIds);
+    }
+
+    /** A local change shown ahead of the server until its write settles. */
+    private static final class Mutation {
+        final String status;
+        final Date dueDate;
+        final boolean deleted;
+
+        Mutation(String status, Date dueDate, boolean deleted) {
+            this.status = status;
+            this.dueDate = dueDate;
+            this.deleted = deleted;
+        }
+
+        Mutation merge(Mutation newer) {
+            return new Mutation(newer.status != null ? newer.status : status,
+                    newer.dueDate != null ? newer.dueDate : dueDate,
+                    deleted || newer.deleted);
+        }
+    }
+
+    private final AssignmentDatabase database;
+    private final FirebaseFirestore firestore;
+    private final WriteCoalescer writes;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Main thread only
+    private final List<Listener> listeners = new ArrayList<>();
+    private final List<ChangeListener> changeListeners = new ArrayList<>();
+    private String userId;
+    private ListenerRegistration syncRegistration;
+    private boolean syncing;
+    private int syncSession;
+    private final ListenerRegistry registry = ListenerRegistry.getInstance();
+    private final Map<Object, ListenerRegistry.Subscription> syncHolds = new HashMap<>();
+    private List<Assignment> latest;
+    private final Map<String, Mutation> mutations = new HashMap<>();
+    private Set<String> pendingIds = Collections.emptySet();
+    private volatile int generation;
+
+    // Executor thread only
+    private final Map<String, Assignment> cache = new HashMap<>();
+    private final Set<String> pendingWrites = new HashSet<>();
+    private long watermark;
+    // Per user, in elapsed realtime
+    private final Map<String, Long> nextReconcileAt = new HashMap<>();
+
+    private AssignmentRepository(Context context, FirebaseFirestore firestore) {
+        this.database = AssignmentDatabase.getInstance(context);
+        this.firestore = firestore;
+        this.writes = new WriteCoalescer(firestore, "assignments");
+    }
+
+    public static synchronized AssignmentRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new AssignmentRepository(context, AssignmateApplication.getFirestore());
+        }
+        return instance;
+    }
+
+    /**
+     * Adds a listener that stays registered until removed. The sync listener only
+     * runs while at least one owner is started; see {@link ListenerRegistry}.
+     */
+    public void addListener(LifecycleOwner owner, String userId, Listener listener) {
+        if (!userId.equals(this.userId)) {
+            switchUser(userId);
+        }
+        listeners.add(listener);
+        if (latest != null) {
+            listener.onAssignmentsChanged(applyPending(latest));
+        }
+        holdSync(owner, listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+        releaseSync(listener);
+    }
+
+    public void addChangeListener(LifecycleOwner owner, String userId, ChangeListener listener) {
+        if (!userId.equals(this.userId)) {
+            switchUser(userId);
+        }
+        changeListeners.add(listener);
+        if (latest != null) {
+            listener.onAssignmentsReset(applyPending(latest));
+        }
+        holdSync(owner, listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        changeListeners.remove(listener);
+        releaseSync(listener);
+    }
+
+    private void holdSync(LifecycleOwner owner, Object listener) {
+        final String uid = userId;
+        releaseSync(listener);
+        // The sync reports through the repository's own listeners; the registry decides when it runs
+        syncHolds.put(listener, registry.observe(owner, "assignment-sync/" + uid, () -> openSync(uid)));
+    }
+
+    private void releaseSync(Object listener) {
+        ListenerRegistry.Subscription hold = syncHolds.remove(listener);
+        if (hold != null) {
+            hold.remove();
+        }
+    }
+
+    /** Called by the registry when the first hold on {@code uid} becomes active. */
+    private ListenerRegistration openSync(String uid) {
+        if (!uid.equals(userId)) {
+            // Another account signed in since this observer was added
+            return () -> { };
+        }
+        final int session = ++syncSession;
+        startSync();
+        return () -> {
+            if (session == syncSession) {
+                stopSync();
+            }
+        };
+    }
+
+    private void switchUser(String userId) {
+        syncSession++;
+        stopSync();
+        this.userId = userId;
+        latest = null;
+        mutations.clear();
+        pendingIds = Collections.emptySet();
+    }
+
+    /**
+     * Re-attaches the delta listener from the current watermark, picking up any
+     * server changes the existing listener may have missed.
+     */
+    public void refresh() {
+        if (userId == null || !syncing) return;
+        stopSync();
+        startSync();
+    }
+
+    /** Assignments due in {@code [start, end]}, as shown with local changes applied. */
+    public void loadAssignmentsDueBetween(String userId, Date start, Date end, Listener listener) {
+        long from = start.getTime();
+        long to = end.getTime();
+        executor.execute(() -> {
+            List<Assignment> result = database.getAssignmentsDueBetween(userId, start, end);
+            mainHandler.post(() -> listener.onAssignmentsChanged(applyPendingWithin(result, assignment ->
+                    assignment.getDueDate() != null
+                            && assignment.getDueDate().getTime() >= from
+                            && assignment.getDueDate().getTime() <= to)));
+        });
+    }
+
+    /**
+     * A keyset page strictly before ({@code older}) or after the (dueDate, id) cursor,
+     * as shown with local changes applied; see {@link AssignmentDatabase#getAssignmentPage}.
+     */
+    public void loadAssignmentPage(String userId, long cursorDue, String cursorId, boolean older,
+                                   int limit, PageListener listener) {
+        Assignment cursor = key(cursorDue, cursorId);
+        executor.execute(() -> {
+            List<Assignment> result = database.getAssignmentPage(userId, cursorDue, cursorId, older, limit);
+            boolean exhausted = result.size() < limit;
+            // A full page ends at its far row; only the last page is open-ended
+            Assignment far = exhausted ? null : key(result.get(older ? 0 : result.size() - 1));
+            mainHandler.post(() -> listener.onPageLoaded(applyPendingWithin(result, assignment -> {
+                if (assignment.getDueDate() == null) return false;
+                int toCursor = AssignmentLists.BY_DUE_DATE_THEN_ID.compare(assignment, cursor);
+                int toFar = far != null ? AssignmentLists.BY_DUE_DATE_THEN_ID.compare(assignment, far) : 0;
+                return older ? toCursor < 0 && toFar >= 0 : toCursor > 0 && toFar <= 0;
+            }), exhausted));
+        });
+    }
+
+    /**
+     * Assignments between two (dueDate, id) keys, both inclusive, as shown with local
+     * changes applied. A null {@code first} or {@code last} leaves that side open.
+     */
+    public void loadAssignmentRange(String userId, Assignment first, Assignment last, Listener listener) {
+        Assignment lower = first != null ? key(first) : key(Long.MIN_VALUE, "");
+        Assignment upper = last != null ? key(last) : key(Long.MAX_VALUE, "\uffff");
+        executor.execute(() -> {
+            List<Assignment> result = database.getAssignmentRange(userId, lower.getDueDate().getTime(),
+                    lower.getId(), upper.getDueDate().getTime(), upper.getId());
+            mainHandler.post(() -> listener.onAssignmentsChanged(applyPendingBetween(result, lower, upper)));
+        });
+    }
+
+    private static Assignment key(Assignment assignment) {
+        return key(assignment.getDueDate().getTime(), assignment.getId());
+    }
+
+    /** A probe carrying just the (dueDate, id) key the local store pages by. */
+    private static Assignment key(long dueAt, String id) {
+        Assignment key = new Assignment();
+        key.setDueDate(new Date(dueAt));
+        key.setId(id);
+        return key;
+    }
+
+    public void updateStatus(List<String> assignmentIds, String status, WriteCoalescer.Callback callback) {
+        Map<String, Object> updates = AssignmentMapper.statusUpdate(status);
+        Map<String, WriteCoalescer.Increments> stats = new HashMap<>();
+        for (Assignment current : currentStates(assignmentIds)) {
+            stats.put(current.getId(), UserStats.statusChange(current, status));
+        }
+        Map<String, Mutation> applied = mutate(assignmentIds, new Mutation(status, null, false));
+        writes.update(assignmentIds, updates, stats, settle(applied, callback));
+    }
+
+    public void reschedule(List<String> assignmentIds, Date dueDate, WriteCoalescer.Callback callback) {
+        Map<String, Object> updates = AssignmentMapper.dueDateUpdate(dueDate);
+        Map<String, Mutation> applied = mutate(assignmentIds, new Mutation(null, dueDate, false));
+        writes.update(assignmentIds, updates, settle(applied, callback));
+    }
+
+    public void delete(List<String> assignmentIds, WriteCoalescer.Callback callback) {
+        Map<String, WriteCoalescer.Increments> stats = new HashMap<>();
+        for (Assignment current : currentStates(assignmentIds)) {
+            stats.put(current.getId(), UserStats.removal(current));
+        }
+        Map<String, Mutation> applied = mutate(assignmentIds, new Mutation(null, null, true));
+        writes.delete(assignmentIds, stats, settle(applied, callback));
+    }
+
+    /**
+     * The assignments as currently shown, including queued local changes, so stats
+     * deltas are computed against the state the write actually changes. Documents
+     * already deleted locally or not synced yet are left out.
+     */
+    private List<Assignment> currentStates(List<String> assignmentIds) {
+        List<Assignment> result = new ArrayList<>();
+        if (latest == null) return result;
+        Set<String> wanted = new HashSet<>(assignmentIds);
+        for (Assignment assignment : latest) {
+            if (!wanted.contains(assignment.getId())) continue;
+            Mutation mutation = mutations.get(assignment.getId());
+            if (mutation == null || !mutation.deleted) {
+                result.add(overlay(assignment, mutation));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code assignments} with in-flight local changes applied: deleted items
+     * are dropped and changed or unacknowledged ones are replaced by flagged copies.
+     * Returns the same list when nothing in it is affected. Main thread only.
+     */
+    public List<Assignment> applyPending(List<Assignment> assignments) {
+        List<Assignment> result = null;
+        boolean moved = false;
+        for (int i = 0; i < assignments.size(); i++) {
+            Assignment original = assignments.get(i);
+            Mutation mutation = mutations.get(original.getId());
+            Assignment shown = mutation != null && mutation.deleted ? null : overlay(original, mutation);
+            if (shown != original && result == null) {
+                result = new ArrayList<>(assignments.subList(0, i));
+            }
+            if (result != null && shown != null) {
+                result.add(shown);
+            }
+            moved |= mutation != null && mutation.dueDate != null;
+        }
+        if (result == null) return assignments;
+        if (moved) Collections.sort(result, AssignmentLists.BY_DUE_DATE);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * {@link #applyPending} for rows between two (dueDate, id) keys, both inclusive,
+     * keeping the result inside them. Main thread only.
+     */
+    public List<Assignment> applyPendingBetween(List<Assignment> rows, Assignment first, Assignment last) {
+        return applyPendingWithin(rows, assignment -> assignment.getDueDate() != null
+                && AssignmentLists.BY_DUE_DATE_THEN_ID.compare(assignment, first) >= 0
+                && AssignmentLists.BY_DUE_DATE_THEN_ID.compare(assignment, last) <= 0);
+    }
+
+    /**
+     * {@link #applyPending} for rows read from one range of the local store. An
+     * optimistic reschedule can move a row out of the range, or another row into it,
+     * so the overlaid rows are checked against {@code inRange} again and rescheduled
+     * rows from elsewhere are merged in, in (dueDate, id) order.
+     */
+    private List<Assignment> applyPendingWithin(List<Assignment> rows, Predicate<Assignment> inRange) {
+        List<Assignment> shown = applyPending(rows);
+        List<Assignment> result = new ArrayList<>(shown.size());
+        for (Assignment assignment : shown) {
+            if (inRange.test(assignment)) {
+                result.add(assignment);
+            }
+        }
+        boolean changed = shown != rows || result.size() != shown.size();
+
+        Set<String> moved = new HashSet<>();
+        for (Map.Entry<String, Mutation> entry : mutations.entrySet()) {
+            if (entry.getValue().dueDate != null && !entry.getValue().deleted) {
+                moved.add(entry.getKey());
+            }
+        }
+        if (!moved.isEmpty() && latest != null) {
+            for (Assignment row : rows) {
+                moved.remove(row.getId());
+            }
+            for (Assignment assignment : latest) {
+                if (!moved.contains(assignment.getId())) continue;
+                Assignment overlaid = overlay(assignment, mutations.get(assignment.getId()));
+                if (inRange.test(overlaid)) {
+                    result.add(overlaid);
+                    changed = true;
+                }
+            }
+        }
+        if (!changed) return rows;
+        Collections.sort(result, AssignmentLists.BY_DUE_DATE_THEN_ID);
+        return Collections.unmodifiableList(result);
+    }
+
+    private Assignment overlay(Assignment assignment, Mutation mutation) {
+        boolean pending = mutation != null || pendingIds.contains(assignment.getId());
+        String status = mutation != null && mutation.status != null ? mutation.status : assignment.getStatus();
+        Date dueDate = mutation != null && mutation.dueDate != null ? mutation.dueDate : assignment.getDueDate();
+        if (pending == assignment.isPendingWrite()
+                && Objects.equals(status, assignment.getStatus())
+                && Objects.equals(dueDate, assignment.getDueDate())) {
+            return assignment;
+        }
+        Assignment copy = new Assignment(assignment);
+        copy.setStatus(status);
+        copy.setDueDate(dueDate);
+        copy.setPendingWrite(pending);
+        return copy;
+    }
+
+    private Map<String, Mutation> mutate(List<String> assignmentIds, Mutation change) {
+        Map<String, Mutation> applied = new HashMap<>();
+        for (String id : assignmentIds) {
+            Mutation current = mutations.get(id);
+            Mutation merged = current == null ? change : current.merge(change);
+            mutations.put(id, merged);
+            applied.put(id, merged);
+        }
+        publishMutations(assignmentIds);
+        return applied;
+    }
+
+    /**
+     * Drops the overlay once the write settles. On success the listener has already
+     * seen the local write; on failure Firestore reverts its cache and the listener
+     * delivers the server state, so either way the base data is authoritative.
+     */
+    private WriteCoalescer.Callback settle(Map<String, Mutation> applied, WriteCoalescer.Callback callback) {
+        return (succeeded, failed) -> {
+            for (Map.Entry<String, Mutation> entry : applied.entrySet()) {
+                // A newer action on the same document keeps its own overlay
+                mutations.remove(entry.getKey(), entry.getValue());
+            }
+            publishMutations(applied.keySet());
+            if (callback != null) callback.onComplete(succeeded, failed);
+        };
+    }
+
+    private void publishMutations(Collection<String> assignmentIds) {
+        if (latest == null) return;
+        publish(latest);
+        if (changeListeners.isEmpty()) return;
+
+        Set<String> remaining = new HashSet<>(assignmentIds);
+        List<Assignment> upserts = new ArrayList<>();
+        for (Assignment assignment : latest) {
+            if (remaining.remove(assignment.getId())) {
+                upserts.add(assignment);
+            }
+        }
+        dispatchChanges(upserts, new ArrayList<>(remaining));
+    }
+
+    private void dispatchChanges(List<Assignment> upserts, List<String> removedIds) {
+        List<Assignment> shown = new ArrayList<>(upserts.size());
+        List<String> removed = new ArrayList<>(removedIds);
+        for (Assignment assignment : upserts) {
+            Mutation mutation = mutations.get(assignment.getId());
+            if (mutation != null && mutation.deleted) {
+                removed.add(assignment.getId());
+            } else {
+                shown.add(overlay(assignment, mutation));
+            }
+        }
+        List<Assignment> changed = Collections.unmodifiableList(shown);
+        List<String> gone = Collections.unmodifiableList(removed);
+        for (ChangeListener listener : new ArrayList<>(changeListeners)) {
+            listener.onAssignmentsChanged(changed, gone);
+        }
+    }
+
+    private void startSync() {
+        final String uid = userId;
+        final int syncGeneration = ++generation;
+        syncing = true;
+        executor.execute(() -> {
+            cache.clear();
+            pendingWrites.clear();
+            for (Assignment assignment : database.getAssignments(uid)) {
+                cache.put(assignment.getId(), assignment);
+            }
+            watermark = database.getWatermark(uid);
+            List<Assignment> snapshot = sortedCopy();
+            long since = watermark;
+            mainHandler.post(() -> {
+                if (syncGeneration != generation) return;
+                publish(snapshot);
+                List<Assignment> shown = applyPending(snapshot);
+                for (ChangeListener listener : new ArrayList<>(changeListeners)) {
+                    listener.onAssignmentsReset(shown);
+                }
+                attachListener(uid, since);
+            });
+        });
+    }
+
+    private void attachListener(String uid, long since) {
+        Query query = firestore.collection("assignments").whereEqualTo("userId", uid);
+        if (since > 0) {
+            query = query.whereGreaterThan("updatedAt", new Date(since));
+        }
+        final int syncGeneration = generation;
+        // Metadata changes tell us when a local write has been acknowledged
+        syncRegistration = ReadMetrics.getInstance().listen("sync:assignments", query, executor,
+                MetadataChanges.INCLUDE, (snapshots, error) -> {
+                    if (error != null) {
+                        Log.w(TAG, "Assignment sync failed", error);
+                        mainHandler.post(() -> {
+                            if (syncGeneration != generation) return;
+                            for (Listener listener : new ArrayList<>(listeners)) {
+                                listener.onSyncError(error);
+                            }
+                        });
+                        return;
+                    }
+                    if (snapshots != null && syncGeneration == generation) {
+                        applyChanges(uid, snapshots, syncGeneration);
+                    }
+                });
+    }
+
+    private void applyChanges(String uid, QuerySnapshot snapshots, int syncGeneration) {
+        List<Assignment> upserts = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        long newWatermark = watermark;
+        boolean pendingChanged = false;
+
+        for (DocumentChange change : snapshots.getDocumentChanges(MetadataChanges.INCLUDE)) {
+            DocumentSnapshot doc = change.getDocument();
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                // Leaving the delta query isn't proof of deletion; confirmRemovals checks
+                removed.add(doc.getId());
+                continue;
+            }
+            pendingChanged |= doc.getMetadata().hasPendingWrites()
+                    ? pendingWrites.add(doc.getId())
+                    : pendingWrites.remove(doc.getId());
+            Assignment assignment = AssignmentMapper.fromSnapshot(doc);
+            cache.put(doc.getId(), assignment);
+            upserts.add(assignment);
+
+            // Locally pending writes carry no server timestamp yet
+            if (!doc.getMetadata().hasPendingWrites() && assignment.getUpdatedAt() != null) {
+                newWatermark = Math.max(newWatermark, assignment.getUpdatedAt().getTime());
+            }
+        }
+
+        if (!snapshots.getMetadata().isFromCache()) {
+            Long due = nextReconcileAt.get(uid);
+            if (due == null || SystemClock.elapsedRealtime() >= due) {
+                nextReconcileAt.put(uid, SystemClock.elapsedRealtime() + RECONCILE_INTERVAL_MS);
+                reconcile(uid, syncGeneration);
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            confirmRemovals(removed, syncGeneration);
+        }
+
+        if (upserts.isEmpty() && !pendingChanged) return;
+
+        database.upsertAll(upserts);
+        if (newWatermark != watermark) {
+            watermark = newWatermark;
+            database.setWatermark(uid, newWatermark);
+        }
+
+        List<Assignment> snapshot = sortedCopy();
+        Set<String> pending = Collections.unmodifiableSet(new HashSet<>(pendingWrites));
+        mainHandler.post(() -> {
+            if (syncGeneration != generation) return;
+            pendingIds = pending;
+            publish(snapshot);
+            dispatchChanges(upserts, Collections.emptyList());
+        });
+    }
+
+    /**
+     * Deletes the documents the delta listener reported removed that Firestore's
+     * local cache no longer holds. Ones still cached left the query because a local
+     * edit's pending server timestamp doesn't match the {@code updatedAt} filter;
+     * they come back once the write is acknowledged. Cache reads are free, and a
+     * document the cache can't answer for is left to {@link #reconcile}.
+     */
+    private void confirmRemovals(List<String> removed, int syncGeneration) {
+        List<Task<DocumentSnapshot>> lookups = new ArrayList<>(removed.size());
+        for (String id : removed) {
+            lookups.add(ReadMetrics.getInstance().get("sync:removed-check",
+                    firestore.collection("assignments").document(id), Source.CACHE));
+        }
+        Tasks.whenAllComplete(lookups).addOnCompleteListener(executor, done -> {
+            if (syncGeneration != generation) return;
+            Set<String> cached = new HashSet<>();
+            for (int i = 0; i < lookups.size(); i++) {
+                Task<DocumentSnapshot> lookup = lookups.get(i);
+                if (!lookup.isSuccessful() || lookup.getResult().exists()) {
+                    cached.add(removed.get(i));
+                }
+            }
+            removeStale(SyncReconciliation.confirmedDeletes(removed, cached::contains), syncGeneration);
+        });
+    }
+
+    /**
+     * Drops local documents the server no longer has. The listener never reports
+     * deletions made while it was detached; a count tells whether any happened and
+     * only then are the server's ids fetched (the client SDK can't project, so that
+     * read costs one per document). Executor thread only.
+     */
+    private void reconcile(String uid, int syncGeneration) {
+        Query query = firestore.collection("assignments").whereEqualTo("userId", uid);
+        ReadMetrics.getInstance().count("sync:reconcile-count", query.count())
+                .addOnSuccessListener(executor, counted -> {
+                    if (syncGeneration != generation
+                            || !SyncReconciliation.mayHaveStale(cache.size(), counted.getCount())) {
+                        return;
+                    }
+                    long checkedWatermark = watermark;
+                    ReadMetrics.getInstance().get("sync:reconcile-ids", query, Source.SERVER)
+                            .addOnSuccessListener(executor, snapshots -> {
+                                if (syncGeneration != generation) return;
+                                Set<String> serverIds = new HashSet<>();
+                                for (QueryDocumentSnapshot doc : snapshots) {
+                                    serverIds.add(doc.getId());
+                                }
+                                removeStale(SyncReconciliation.staleIds(cache.values(), serverIds,
+                                        pendingWrites, checkedWatermark), syncGeneration);
+                            });
+                })
+                .addOnFailureListener(executor, e -> Log.w(TAG, "Assignment reconciliation failed", e));
+    }
+
+    private void removeStale(List<String> stale, int syncGeneration) {
+        if (stale.isEmpty()) return;
+        for (String id : stale) {
+            cache.remove(id);
+            pendingWrites.remove(id);
+        }
+        database.deleteAll(stale);
+        List<Assignment> snapshot = sortedCopy();
+        Set<String> pending = Collections.unmodifiableSet(new HashSet<>(pendingWrites));
+        mainHandler.post(() -> {
+            if (syncGeneration != generation) return;
+            pendingIds = pending;
+            publish(snapshot);
+            dispatchChanges(Collections.emptyList(), stale);
+        });
+    }
+
+    private List<Assignment> sortedCopy() {
+        List<Assignment> copy = new ArrayList<>(cache.values());
+        Collections.sort(copy, AssignmentLists.BY_DUE_DATE);
+        return Collections.unmodifiableList(copy);
+    }
+
+    private void publish(List<Assignment> assignments) {
+        latest = assignments;
+        List<Assignment> shown = applyPending(assignments);
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onAssignmentsChanged(shown);
+        }
+    }
+
+    private void stopSync() {
+        generation++;
+        syncing = false;
+        if (syncRegistration != null) {
+            syncRegistration.remove();
+            syncRegistration = null;
+        }
+    }
+}
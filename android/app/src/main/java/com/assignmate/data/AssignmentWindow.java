@@ -0,0 +1,218 @@
+package com.assignmate.data;
+
+import androidx.lifecycle.LifecycleOwner;
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A bounded window of a user's assignments around "now", paged out of the local
+ * store with (dueDate, id) keyset cursors. Opening the list costs two small page
+ * queries however long the user's history is; older and newer pages are fetched on
+ * demand and the far end of the window is trimmed so it never exceeds
+ * {@link #MAX_WINDOW_SIZE} items. One load runs at a time and requests made
+ * meanwhile wait their turn, so a slow re-read can't overwrite a page appended
+ * after it started. All methods must be called on the main thread.
+ */
+public class AssignmentWindow {
+    public static final int PAGE_SIZE = 30;
+    private static final int INITIAL_PAST_SIZE = 10;
+    private static final int MAX_WINDOW_SIZE = PAGE_SIZE * 5;
+
+    public interface Listener {
+        /** @param firstUpcoming index of the first item due at or after the window's anchor time */
+        void onWindowChanged(List<Assignment> assignments, int firstUpcoming);
+
+        default void onSyncError(Exception e) {
+        }
+    }
+
+    private final AssignmentRepository repository;
+    private final String userId;
+    private final Listener listener;
+
+    private List<Assignment> items = Collections.emptyList();
+    private boolean loaded;
+    private boolean olderExhausted;
+    private boolean newerExhausted;
+    // Bumped by every load and by stop(); a result only applies if it is still current
+    private int generation;
+    private boolean loading;
+    private boolean reloadQueued;
+    private boolean olderQueued;
+    private boolean newerQueued;
+
+    private final AssignmentRepository.Listener invalidationListener = new AssignmentRepository.Listener() {
+        @Override
+        public void onAssignmentsChanged(List<Assignment> assignments) {
+            if (loaded && !items.isEmpty()) {
+                // Show local writes right away, within the current bounds; the range re-read settles the rest
+                List<Assignment> patched = repository.applyPendingBetween(items, items.get(0),
+                        items.get(items.size() - 1));
+                if (patched != items) {
+                    publish(patched, -1);
+                }
+            }
+            reloadQueued = true;
+            runNext();
+        }
+
+        @Override
+        public void onSyncError(Exception e) {
+            listener.onSyncError(e);
+        }
+    };
+
+    public AssignmentWindow(AssignmentRepository repository, String userId, Listener listener) {
+        this.repository = repository;
+        this.userId = userId;
+        this.listener = listener;
+    }
+
+    /** Re-reads the window whenever the repository changes; syncs while {@code owner} is started. */
+    public void start(LifecycleOwner owner) {
+        repository.addListener(owner, userId, invalidationListener);
+    }
+
+    public void stop() {
+        generation++;
+        loading = false;
+        reloadQueued = olderQueued = newerQueued = false;
+        repository.removeListener(invalidationListener);
+    }
+
+    public void loadOlder() {
+        olderQueued = true;
+        runNext();
+    }
+
+    public void loadNewer() {
+        newerQueued = true;
+        runNext();
+    }
+
+    /** Starts the next queued load unless one is in flight; re-reads go before pages. */
+    private void runNext() {
+        if (loading) return;
+        if (reloadQueued) {
+            reloadQueued = false;
+            if (loaded && !items.isEmpty()) {
+                reloadRange();
+            } else {
+                loadInitial();
+            }
+        } else if (olderQueued) {
+            olderQueued = false;
+            if (!fetchOlder()) runNext();
+        } else if (newerQueued) {
+            newerQueued = false;
+            if (!fetchNewer()) runNext();
+        }
+    }
+
+    private boolean fetchOlder() {
+        if (!loaded || olderExhausted || items.isEmpty()) return false;
+        Assignment first = items.get(0);
+        final int requestGeneration = begin();
+        repository.loadAssignmentPage(userId, first.getDueDate().getTime(), first.getId(), true,
+                PAGE_SIZE, (page, exhausted) -> {
+                    if (!finish(requestGeneration)) return;
+                    // Scrolling asked again while this page loaded; it answers those requests too
+                    olderQueued = false;
+                    olderExhausted = exhausted;
+                    List<Assignment> merged = new ArrayList<>(page.size() + items.size());
+                    merged.addAll(page);
+                    merged.addAll(items);
+                    if (merged.size() > MAX_WINDOW_SIZE) {
+                        merged = new ArrayList<>(merged.subList(0, MAX_WINDOW_SIZE));
+                        newerExhausted = false;
+                    }
+                    publish(merged, -1);
+                    runNext();
+                });
+        return true;
+    }
+
+    private boolean fetchNewer() {
+        if (!loaded || newerExhausted || items.isEmpty()) return false;
+        Assignment last = items.get(items.size() - 1);
+        final int requestGeneration = begin();
+        repository.loadAssignmentPage(userId, last.getDueDate().getTime(), last.getId(), false,
+                PAGE_SIZE, (page, exhausted) -> {
+                    if (!finish(requestGeneration)) return;
+                    newerQueued = false;
+                    newerExhausted = exhausted;
+                    List<Assignment> merged = new ArrayList<>(items.size() + page.size());
+                    merged.addAll(items);
+                    merged.addAll(page);
+                    if (merged.size() > MAX_WINDOW_SIZE) {
+                        merged = new ArrayList<>(merged.subList(merged.size() - MAX_WINDOW_SIZE, merged.size()));
+                        olderExhausted = false;
+                    }
+                    publish(merged, -1);
+                    runNext();
+                });
+        return true;
+    }
+
+    private void loadInitial() {
+        final int requestGeneration = begin();
+        final long now = System.currentTimeMillis();
+        repository.loadAssignmentPage(userId, now, "", true, INITIAL_PAST_SIZE, (past, pastExhausted) -> {
+            if (requestGeneration != generation) return;
+            repository.loadAssignmentPage(userId, now, "", false, PAGE_SIZE, (upcoming, upcomingExhausted) -> {
+                if (!finish(requestGeneration)) return;
+                loaded = true;
+                olderExhausted = pastExhausted;
+                newerExhausted = upcomingExhausted;
+                List<Assignment> merged = new ArrayList<>(past.size() + upcoming.size());
+                merged.addAll(past);
+                merged.addAll(upcoming);
+                publish(merged, past.size());
+                runNext();
+            });
+        });
+    }
+
+    private void reloadRange() {
+        final int requestGeneration = begin();
+        // An exhausted end is re-read open-ended so rows synced or created past it show up
+        Assignment first = olderExhausted ? null : items.get(0);
+        Assignment last = newerExhausted ? null : items.get(items.size() - 1);
+        repository.loadAssignmentRange(userId, first, last, range -> {
+            if (!finish(requestGeneration)) return;
+            if (range.isEmpty()) {
+                loadInitial();
+                return;
+            }
+            if (range.size() > MAX_WINDOW_SIZE) {
+                // Rows synced into the window since it was read; trim both ends evenly
+                int head = (range.size() - MAX_WINDOW_SIZE) / 2;
+                olderExhausted &= head == 0;
+                newerExhausted = false;
+                publish(new ArrayList<>(range.subList(head, head + MAX_WINDOW_SIZE)), -1);
+            } else {
+                publish(range, -1);
+            }
+            runNext();
+        });
+    }
+
+    private int begin() {
+        loading = true;
+        return ++generation;
+    }
+
+    /** Ends the load started as {@code requestGeneration}; false if it was superseded. */
+    private boolean finish(int requestGeneration) {
+        if (requestGeneration != generation) return false;
+        loading = false;
+        return true;
+    }
+
+    private void publish(List<Assignment> assignments, int firstUpcoming) {
+        items = Collections.unmodifiableList(assignments);
+        listener.onWindowChanged(items, firstUpcoming);
+    }
+}
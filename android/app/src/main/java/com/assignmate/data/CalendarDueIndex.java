@@ -0,0 +1,193 @@
+package com.assignmate.data;
+
+import com.assignmate.core.DateWindows;
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-day index of due assignments, built from one range query per month and
+ * kept for the visible month and its neighbours. Date taps are answered from
+ * memory once a month is loaded. Must be used on the main thread.
+ */
+public class CalendarDueIndex {
+    private static final int MAX_CACHED_MONTHS = 6;
+
+    public interface Callback {
+        void onMonthLoaded(MonthIndex month);
+    }
+
+    public static class MonthIndex {
+        public final int year;
+        public final int month;
+        private final List<List<String>> idsByDay;
+
+        MonthIndex(int year, int month, List<List<String>> idsByDay) {
+            this.year = year;
+            this.month = month;
+            this.idsByDay = idsByDay;
+        }
+
+        public int countForDay(int dayOfMonth) {
+            return getIdsForDay(dayOfMonth).size();
+        }
+
+        public List<String> getIdsForDay(int dayOfMonth) {
+            if (dayOfMonth < 1 || dayOfMonth > idsByDay.size()) return Collections.emptyList();
+            return idsByDay.get(dayOfMonth - 1);
+        }
+
+        /** Adds {@code monthKey} and the day for each of {@code ids} listed in this month. */
+        void collectDays(Set<String> ids, int monthKey, Map<String, int[]> days) {
+            for (int day = 1; day <= idsByDay.size(); day++) {
+                for (String id : idsByDay.get(day - 1)) {
+                    if (ids.contains(id)) days.put(id, new int[] {monthKey, day});
+                }
+            }
+        }
+    }
+
+    private final AssignmentRepository repository;
+    private final String userId;
+    private final Map<Integer, MonthIndex> months =
+            new LinkedHashMap<Integer, MonthIndex>(MAX_CACHED_MONTHS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, MonthIndex> eldest) {
+                    return size() > MAX_CACHED_MONTHS;
+                }
+            };
+    // Months with a query in flight, and the callbacks waiting on them
+    private final Map<Integer, List<Callback>> pending = new HashMap<>();
+    private final DateWindows dateWindows = new DateWindows();
+    private int generation;
+
+    public CalendarDueIndex(AssignmentRepository repository, String userId) {
+        this.repository = repository;
+        this.userId = userId;
+    }
+
+    /** Returns the cached month, or null if it has not been loaded yet. */
+    public MonthIndex getMonth(int year, int month) {
+        return months.get(DateWindows.monthKey(year, month));
+    }
+
+    /**
+     * Delivers the month's index, loading it if needed, and warms the cache with the
+     * months on either side.
+     */
+    public void loadMonth(int year, int month, Callback callback) {
+        int key = DateWindows.monthKey(year, month);
+        MonthIndex cached = months.get(key);
+        if (cached != null) {
+            callback.onMonthLoaded(cached);
+        } else {
+            fetch(year, month, callback);
+        }
+        prefetch(key - 1);
+        prefetch(key + 1);
+    }
+
+    /** Drops every cached month; taps still waiting on a load are re-queried. */
+    public void invalidate() {
+        months.clear();
+        requeryPending();
+    }
+
+    /**
+     * Drops only the cached months a change touches: the month an assignment was
+     * listed in and the month it is due in now. Changes that keep the due day, such
+     * as a status toggle, drop nothing. Loads in flight may have read the old state,
+     * so they are re-queried either way.
+     */
+    public void invalidate(List<Assignment> upserts, List<String> removedIds) {
+        Set<String> changedIds = new HashSet<>(removedIds);
+        for (Assignment assignment : upserts) {
+            changedIds.add(assignment.getId());
+        }
+        // Where each changed assignment is listed now, as month key and day
+        Map<String, int[]> listed = new HashMap<>();
+        for (Map.Entry<Integer, MonthIndex> entry : months.entrySet()) {
+            entry.getValue().collectDays(changedIds, entry.getKey(), listed);
+        }
+
+        Set<Integer> stale = new HashSet<>();
+        for (String id : removedIds) {
+            int[] was = listed.get(id);
+            if (was != null) stale.add(was[0]);
+        }
+        for (Assignment assignment : upserts) {
+            int[] was = listed.get(assignment.getId());
+            int[] now = null;
+            if (assignment.getDueDate() != null) {
+                long dueAt = assignment.getDueDate().getTime();
+                now = new int[] {dateWindows.monthKeyOf(dueAt), dateWindows.dayOfMonth(dueAt)};
+            }
+            if (was != null && now != null && was[0] == now[0] && was[1] == now[1]) continue;
+            if (was != null) stale.add(was[0]);
+            if (now != null) stale.add(now[0]);
+        }
+        months.keySet().removeAll(stale);
+        requeryPending();
+    }
+
+    private void requeryPending() {
+        generation++;
+        Map<Integer, List<Callback>> waiting = new HashMap<>(pending);
+        pending.clear();
+        for (Map.Entry<Integer, List<Callback>> entry : waiting.entrySet()) {
+            int key = entry.getKey();
+            for (Callback callback : entry.getValue()) {
+                fetch(DateWindows.yearOf(key), DateWindows.monthOf(key), callback);
+            }
+        }
+    }
+
+    private void prefetch(int key) {
+        if (!months.containsKey(key)) {
+            fetch(DateWindows.yearOf(key), DateWindows.monthOf(key), null);
+        }
+    }
+
+    private void fetch(int year, int month, Callback callback) {
+        final int key = DateWindows.monthKey(year, month);
+        List<Callback> waiting = pending.get(key);
+        if (waiting != null) {
+            if (callback != null) waiting.add(callback);
+            return;
+        }
+        waiting = new ArrayList<>();
+        if (callback != null) waiting.add(callback);
+        pending.put(key, waiting);
+
+        final int requestGeneration = generation;
+        Date start = new Date(dateWindows.monthStart(year, month));
+        Date end = new Date(dateWindows.monthEnd(year, month));
+        final int daysInMonth = dateWindows.daysInMonth(year, month);
+
+        repository.loadAssignmentsDueBetween(userId, start, end, assignments -> {
+            if (requestGeneration != generation) return;
+            List<Callback> callbacks = pending.remove(key);
+
+            List<List<String>> idsByDay = new ArrayList<>(daysInMonth);
+            for (int i = 0; i < daysInMonth; i++) {
+                idsByDay.add(new ArrayList<>());
+            }
+            for (Assignment assignment : assignments) {
+                int day = dateWindows.dayOfMonth(assignment.getDueDate().getTime());
+                idsByDay.get(day - 1).add(assignment.getId());
+            }
+            MonthIndex index = new MonthIndex(year, month, idsByDay);
+            months.put(key, index);
+            for (Callback waitingCallback : callbacks) {
+                waitingCallback.onMonthLoaded(index);
+            }
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package com.assignmate.data;
+
+import android.content.Context;
+import android.util.Log;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.PersistentCacheIndexManager;
+import com.google.firebase.firestore.PersistentCacheSettings;
+import java.io.File;
+
+/**
+ * Policy for Firestore's on-device cache. The cache is persistent but bounded:
+ * once it grows past the size budget the SDK garbage-collects the least recently
+ * used documents that no active listener needs. Queries served from the cache
+ * are backed by client-side indexes instead of scanning every cached document.
+ */
+public final class FirestoreCache {
+    private static final String TAG = "FirestoreCache";
+    public static final long MB = 1024 * 1024;
+    // Firestore refuses budgets below 1 MB
+    private static final long MIN_SIZE_BYTES = MB;
+
+    // Same format as web/firestore.indexes.json; covers the queries run on this device
+    private static final String INDEX_CONFIGURATION = "{\"indexes\":["
+            + index("assignments", "userId", "dueDate") + ","
+            + index("assignments", "userId", "updatedAt")
+            + "],\"fieldOverrides\":[]}";
+
+    private FirestoreCache() {
+    }
+
+    public static FirebaseFirestoreSettings settings(long sizeBytes) {
+        PersistentCacheSettings cache = PersistentCacheSettings.newBuilder()
+                .setSizeBytes(Math.max(sizeBytes, MIN_SIZE_BYTES))
+                .build();
+        return new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(cache)
+                .build();
+    }
+
+    /** Registers the cache indexes; call right after the settings are applied. */
+    @SuppressWarnings("deprecation")
+    public static void configureIndexes(FirebaseFirestore firestore) {
+        firestore.setIndexConfiguration(INDEX_CONFIGURATION)
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to configure cache indexes", e));
+
+        // Lets the SDK add indexes for any other query that keeps scanning the cache
+        PersistentCacheIndexManager indexManager = firestore.getPersistentCacheIndexManager();
+        if (indexManager != null) {
+            indexManager.enableIndexAutoCreation();
+        }
+    }
+
+    /**
+     * Bytes the cache currently occupies on disk, including its write-ahead log.
+     * Reads the file system, so call it off the main thread.
+     */
+    public static long getSizeBytes(Context context) {
+        File databases = context.getDatabasePath("firestore").getParentFile();
+        File[] files = databases != null ? databases.listFiles() : null;
+        if (files == null) return 0;
+
+        long total = 0;
+        for (File file : files) {
+            // One database per app/project/database: firestore.<app>.<project>.<database>
+            if (file.getName().startsWith("firestore.")) {
+                total += file.length();
+            }
+        }
+        return total;
+    }
+
+    private static String index(String collection, String first, String second) {
+        return "{\"collectionGroup\":\"" + collection + "\",\"queryScope\":\"COLLECTION\",\"fields\":["
+                + "{\"fieldPath\":\"" + first + "\",\"order\":\"ASCENDING\"},"
+                + "{\"fieldPath\":\"" + second + "\",\"order\":\"ASCENDING\"}]}";
+    }
+}
@@ -0,0 +1,163 @@
+package com.assignmate.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import com.google.firebase.firestore.ListenerRegistration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps one listener per key attached while anyone holds it. Holds are
+ * reference-counted: the listener attaches when the first hold becomes active and
+ * detaches only after the last one has been inactive for a grace period, so
+ * rotations and quick trips to other screens reuse it instead of re-reading.
+ * Results go wherever the listener itself delivers them; the registry only
+ * decides when it runs. Must be used on the main thread.
+ */
+public final class ListenerRegistry {
+    public static final long DEFAULT_GRACE_PERIOD_MS = 30 * 1000;
+    private static ListenerRegistry instance;
+
+    /** Attaches the underlying listener. */
+    public interface Source {
+        ListenerRegistration start();
+    }
+
+    public interface Subscription extends ListenerRegistration {
+        /** Inactive holds don't keep the listener attached. */
+        void setActive(boolean active);
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final long gracePeriodMs;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /** @param gracePeriodMs 0 detaches as soon as the last hold goes inactive */
+    public ListenerRegistry(long gracePeriodMs) {
+        this.gracePeriodMs = gracePeriodMs;
+    }
+
+    public static synchronized ListenerRegistry getInstance() {
+        if (instance == null) {
+            instance = new ListenerRegistry(DEFAULT_GRACE_PERIOD_MS);
+        }
+        return instance;
+    }
+
+    /**
+     * Adds a hold on {@code key}, using {@code source} only if no listener for the
+     * key exists. The hold starts out inactive.
+     */
+    public Subscription hold(String key, Source source) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(key, source);
+            entries.put(key, entry);
+        }
+        entry.holds++;
+        return new Hold(entry);
+    }
+
+    /** Like {@link #hold}, active while {@code owner} is started and removed when it is destroyed. */
+    public Subscription observe(LifecycleOwner owner, String key, Source source) {
+        Hold hold = (Hold) hold(key, source);
+        Lifecycle lifecycle = owner.getLifecycle();
+        LifecycleEventObserver lifecycleObserver = (o, event) -> {
+            if (event == Lifecycle.Event.ON_START) {
+                hold.setActive(true);
+            } else if (event == Lifecycle.Event.ON_STOP) {
+                hold.setActive(false);
+            } else if (event == Lifecycle.Event.ON_DESTROY) {
+                hold.remove();
+            }
+        };
+        hold.onRemove = () -> lifecycle.removeObserver(lifecycleObserver);
+        // Replays the events up to the owner's current state
+        lifecycle.addObserver(lifecycleObserver);
+        return hold;
+    }
+
+    private final class Entry {
+        final String key;
+        final Source source;
+        final Runnable detachRunnable = this::detach;
+        int holds;
+        int activeCount;
+        ListenerRegistration registration;
+
+        Entry(String key, Source source) {
+            this.key = key;
+            this.source = source;
+        }
+
+        void activate() {
+            activeCount++;
+            handler.removeCallbacks(detachRunnable);
+            if (registration == null) {
+                registration = source.start();
+            }
+        }
+
+        void deactivate() {
+            if (--activeCount > 0) return;
+            if (gracePeriodMs == 0) {
+                detach();
+            } else {
+                handler.postDelayed(detachRunnable, gracePeriodMs);
+            }
+        }
+
+        void release(boolean wasActive) {
+            holds--;
+            if (wasActive) {
+                deactivate();
+            } else if (registration == null && holds == 0) {
+                entries.remove(key);
+            }
+        }
+
+        private void detach() {
+            if (activeCount > 0 || registration == null) return;
+            registration.remove();
+            registration = null;
+            if (holds == 0) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    private static final class Hold implements Subscription {
+        final Entry entry;
+        Runnable onRemove;
+        boolean active;
+        boolean removed;
+
+        Hold(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void setActive(boolean active) {
+            if (removed || this.active == active) return;
+            this.active = active;
+            if (active) {
+                entry.activate();
+            } else {
+                entry.deactivate();
+            }
+        }
+
+        @Override
+        public void remove() {
+            if (removed) return;
+            removed = true;
+            boolean wasActive = active;
+            active = false;
+            entry.release(wasActive);
+            if (onRemove != null) onRemove.run();
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.assignmate.data;
+
+import android.os.SystemClock;
+import android.util.Log;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.AggregateQuery;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Per-query accounting of Firestore reads. Every get, count and snapshot listener
+ * goes through here under a name of the form {@code screen:query}, and records
+ * billed document reads, cache versus server results, latency to the first result
+ * and listener counts. Reads are estimated the way Firestore bills them: server
+ * results cost one read per document delivered or changed (at least one per
+ * query), cache results cost nothing, and counts cost one read per 1000 matches.
+ * Screens with a read budget log a warning the first time they exceed it.
+ * Thread-safe.
+ */
+public final class ReadMetrics {
+    private static final String TAG = "ReadMetrics";
+    private static final long COUNT_ENTRIES_PER_READ = 1000;
+    private static ReadMetrics instance;
+
+    /** Totals for one named query since the process started or the last reset. */
+    public static final class QueryStats {
+        public final String name;
+        public long documentReads;
+        public long serverResults;
+        public long cacheResults;
+        public long cachedDocuments;
+        public int activeListeners;
+        public int totalListeners;
+        public long firstResultSamples;
+        public long firstResultTotalMs;
+        public long firstResultMaxMs;
+
+        QueryStats(String name) {
+            this.name = name;
+        }
+
+        QueryStats copy() {
+            QueryStats copy = new QueryStats(name);
+            copy.documentReads = documentReads;
+            copy.serverResults = serverResults;
+            copy.cacheResults = cacheResults;
+            copy.cachedDocuments = cachedDocuments;
+            copy.activeListeners = activeListeners;
+            copy.totalListeners = totalListeners;
+            copy.firstResultSamples = firstResultSamples;
+            copy.firstResultTotalMs = firstResultTotalMs;
+            copy.firstResultMaxMs = firstResultMaxMs;
+            return copy;
+        }
+
+        public long averageFirstResultMs() {
+            return firstResultSamples == 0 ? 0 : firstResultTotalMs / firstResultSamples;
+        }
+    }
+
+    private final Map<String, QueryStats> stats = new TreeMap<>();
+    private final Map<String, Long> budgets = new HashMap<>();
+    private final Set<String> overBudget = new HashSet<>();
+
+    public static synchronized ReadMetrics getInstance() {
+        if (instance == null) {
+            instance = new ReadMetrics();
+        }
+        return instance;
+    }
+
+    /** Warns once when queries named {@code screen:...} have read more than {@code reads} documents. */
+    public synchronized void setBudget(String screen, long reads) {
+        budgets.put(screen, reads);
+    }
+
+    public ListenerRegistration listen(String name, Query query, Executor executor,
+                                       MetadataChanges metadataChanges, EventListener<QuerySnapshot> listener) {
+        final long startedAt = SystemClock.elapsedRealtime();
+        // Only touched on the listener's executor: [0] any result seen, [1] a server result seen
+        final boolean[] seen = new boolean[2];
+        synchronized (this) {
+            QueryStats entry = entry(name);
+            entry.activeListeners++;
+            entry.totalListeners++;
+        }
+        ListenerRegistration registration = query.addSnapshotListener(executor, metadataChanges,
+                (snapshots, error) -> {
+                    if (snapshots != null) {
+                        boolean fromCache = snapshots.getMetadata().isFromCache();
+                        // The server sends the full result when a listener (re)connects, even if it matches the cache
+                        boolean initial = !fromCache && !seen[1];
+                        recordQuery(name, snapshots, initial, seen[0] ? -1 : startedAt);
+                        seen[0] = true;
+                        seen[1] |= !fromCache;
+                    }
+                    listener.onEvent(snapshots, error);
+                });
+        return new ListenerRegistration() {
+            private boolean removed;
+
+            @Override
+            public void remove() {
+                synchronized (ReadMetrics.this) {
+                    if (removed) return;
+                    removed = true;
+                    entry(name).activeListeners--;
+                }
+                registration.remove();
+            }
+        };
+    }
+
+    public Task<QuerySnapshot> get(String name, Query query, Source source) {
+        final long startedAt = SystemClock.elapsedRealtime();
+        return query.get(source).addOnSuccessListener(
+                snapshots -> recordQuery(name, snapshots, true, startedAt));
+    }
+
+    public Task<QuerySnapshot> get(String name, Query query) {
+        return get(name, query, Source.DEFAULT);
+    }
+
+    public Task<DocumentSnapshot> get(String name, DocumentReference document, Source source) {
+        final long startedAt = SystemClock.elapsedRealtime();
+        return document.get(source).addOnSuccessListener(snapshot -> {
+            boolean fromCache = snapshot.getMetadata().isFromCache();
+            record(name, fromCache ? 0 : 1, fromCache, fromCache && snapshot.exists() ? 1 : 0, startedAt);
+        });
+    }
+
+    public Task<DocumentSnapshot> get(String name, DocumentReference document) {
+        return get(name, document, Source.DEFAULT);
+    }
+
+    public Task<AggregateQuerySnapshot> count(String name, AggregateQuery query) {
+        final long startedAt = SystemClock.elapsedRealtime();
+        return query.get(AggregateSource.SERVER).addOnSuccessListener(snapshot -> {
+            long reads = Math.max(1, (snapshot.getCount() + COUNT_ENTRIES_PER_READ - 1) / COUNT_ENTRIES_PER_READ);
+            record(name, reads, false, 0, startedAt);
+        });
+    }
+
+    /** {@code initial} results are billed in full; later listener results only for what changed. */
+    private void recordQuery(String name, QuerySnapshot snapshots, boolean initial, long startedAt) {
+        boolean fromCache = snapshots.getMetadata().isFromCache();
+        long reads = 0;
+        if (!fromCache) {
+            if (initial) {
+                // Even an empty result is billed as one read
+                reads = Math.max(1, snapshots.size());
+            } else {
+                for (DocumentChange change : snapshots.getDocumentChanges()) {
+                    // Removals and this device's own unacknowledged writes aren't reads
+                    if (change.getType() != DocumentChange.Type.REMOVED
+                            && !change.getDocument().getMetadata().hasPendingWrites()) {
+                        reads++;
+                    }
+                }
+            }
+        }
+        record(name, reads, fromCache, fromCache ? snapshots.size() : 0, startedAt);
+    }
+
+    private synchronized void record(String name, long reads, boolean fromCache, long cachedDocuments,
+                                     long startedAt) {
+        QueryStats entry = entry(name);
+        entry.documentReads += reads;
+        entry.cachedDocuments += cachedDocuments;
+        if (fromCache) {
+            entry.cacheResults++;
+        } else {
+            entry.serverResults++;
+        }
+        if (startedAt >= 0) {
+            long latency = SystemClock.elapsedRealtime() - startedAt;
+            entry.firstResultSamples++;
+            entry.firstResultTotalMs += latency;
+            entry.firstResultMaxMs = Math.max(entry.firstResultMaxMs, latency);
+        }
+        if (reads > 0) {
+            checkBudget(screenOf(name));
+        }
+    }
+
+    private void checkBudget(String screen) {
+        Long budget = budgets.get(screen);
+        if (budget == null || overBudget.contains(screen)) return;
+        long reads = screenReads(screen);
+        if (reads > budget) {
+            overBudget.add(screen);
+            Log.w(TAG, "Screen '" + screen + "' read " + reads + " documents, over its budget of " + budget);
+        }
+    }
+
+    private long screenReads(String screen) {
+        long reads = 0;
+        for (QueryStats entry : stats.values()) {
+            if (screenOf(entry.name).equals(screen)) reads += entry.documentReads;
+        }
+        return reads;
+    }
+
+    private QueryStats entry(String name) {
+        QueryStats entry = stats.get(name);
+        if (entry == null) {
+            entry = new QueryStats(name);
+            stats.put(name, entry);
+        }
+        return entry;
+    }
+
+    private static String screenOf(String name) {
+        int separator = name.indexOf(':');
+        return separator < 0 ? name : name.substring(0, separator);
+    }
+
+    /** A copy of the per-query totals, by name. */
+    public synchronized List<QueryStats> snapshot() {
+        List<QueryStats> copies = new ArrayList<>(stats.size());
+        for (QueryStats entry : stats.values()) {
+            copies.add(entry.copy());
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    /** Clears the totals; listeners still attached keep being counted as active. */
+    public synchronized void reset() {
+        for (Map.Entry<String, QueryStats> entry : new ArrayList<>(stats.entrySet())) {
+            QueryStats fresh = new QueryStats(entry.getKey());
+            fresh.activeListeners = entry.getValue().activeListeners;
+            entry.setValue(fresh);
+        }
+        overBudget.clear();
+    }
+
+    /** Plain-text report: per-screen totals followed by one line per query. */
+    public synchronized String report() {
+        StringBuilder out = new StringBuilder();
+        Map<String, Long> screens = new TreeMap<>();
+        long total = 0;
+        for (QueryStats entry : stats.values()) {
+            String screen = screenOf(entry.name);
+            Long reads = screens.get(screen);
+            screens.put(screen, (reads != null ? reads : 0) + entry.documentReads);
+            total += entry.documentReads;
+        }
+        out.append("Document reads: ").append(total).append('\n');
+        for (Map.Entry<String, Long> screen : screens.entrySet()) {
+            Long budget = budgets.get(screen.getKey());
+            out.append("  ").append(screen.getKey()).append(": ").append(screen.getValue());
+            if (budget != null) out.append(" / budget ").append(budget);
+            out.append('\n');
+        }
+        out.append('\n');
+        for (QueryStats entry : stats.values()) {
+            out.append(entry.name).append('\n');
+            out.append(String.format(Locale.US,
+                    "  reads %d, results %d server / %d cache (%d docs from cache)%n"
+                            + "  first result avg %d ms, max %d ms over %d%n"
+                            + "  listeners %d active, %d attached%n",
+                    entry.documentReads, entry.serverResults, entry.cacheResults, entry.cachedDocuments,
+                    entry.averageFirstResultMs(), entry.firstResultMaxMs, entry.firstResultSamples,
+                    entry.activeListeners, entry.totalListeners));
+        }
+        return out.toString();
+    }
+
+    /** Writes {@link #report} to {@code file}. Touches disk, so call it off the main thread. */
+    public void dump(File file) throws IOException {
+        String report = report();
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(report);
+        }
+    }
+}
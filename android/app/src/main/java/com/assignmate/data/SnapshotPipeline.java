@@ -0,0 +1,67 @@
+package com.assignmate.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs snapshot listeners on a background executor: documents are deserialized and
+ * derived there, and only the finished, immutable result is posted to the main
+ * thread. Nothing is delivered after the returned registration is removed.
+ */
+public final class SnapshotPipeline {
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    public interface Mapper<T> {
+        /** Called on the background executor. */
+        T map(QuerySnapshot snapshots);
+    }
+
+    public interface Consumer<T> {
+        /** Called on the main thread. */
+        void onResult(T result);
+
+        void onError(Exception e);
+    }
+
+    private SnapshotPipeline() {
+    }
+
+    /** @param name the query's name in {@link ReadMetrics} */
+    public static <T> ListenerRegistration listen(String name, Query query, Mapper<T> mapper, Consumer<T> consumer) {
+        PipelineRegistration registration = new PipelineRegistration();
+        registration.delegate = ReadMetrics.getInstance().listen(name, query, EXECUTOR, MetadataChanges.EXCLUDE,
+                (snapshots, error) -> {
+                    if (registration.removed) return;
+                    if (error != null) {
+                        MAIN_HANDLER.post(() -> {
+                            if (!registration.removed) consumer.onError(error);
+                        });
+                        return;
+                    }
+                    if (snapshots == null) return;
+                    T result = mapper.map(snapshots);
+                    MAIN_HANDLER.post(() -> {
+                        if (!registration.removed) consumer.onResult(result);
+                    });
+                });
+        return registration;
+    }
+
+    private static final class PipelineRegistration implements ListenerRegistration {
+        volatile boolean removed;
+        ListenerRegistration delegate;
+
+        @Override
+        public void remove() {
+            removed = true;
+            delegate.remove();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.assignmate.data;
+
+import android.util.SparseArray;
+import androidx.lifecycle.LifecycleOwner;
+import com.assignmate.models.User;
+import com.assignmate.models.UserMapper;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cursor-paginated view over the users collection for the admin console. Users are
+ * ordered by document id, as the unpaged list was: ordering by a field would drop
+ * profiles written without it (e.g. ones created by the activity tracker's merge
+ * write). Only a small window of pages holds realtime listeners; pages that slide
+ * out of the window are released along with their data, and their listeners are
+ * removed at once rather than kept for the shared registry's grace period. Listeners
+ * pause while the owner is stopped. When a page's last user changes (a deletion, or
+ * an insert that sorts before it), the next page is re-attached after the new end,
+ * and so on down the window, so pages neither overlap nor leave gaps.
+ */
+public class UserPager {
+    public static final int PAGE_SIZE = 50;
+    private static final int MAX_LIVE_PAGES = 3;
+
+    public interface Listener {
+        void onUsersChanged(List<User> users);
+
+        void onError(Exception e);
+    }
+
+    private static final class Page {
+        final List<User> users;
+        final DocumentSnapshot lastDoc;
+        final boolean fromCache;
+
+        Page(List<User> users, DocumentSnapshot lastDoc, boolean fromCache) {
+            this.users = users;
+            this.lastDoc = lastDoc;
+            this.fromCache = fromCache;
+        }
+    }
+
+    private final FirebaseFirestore firestore;
+    private final Listener listener;
+
+    // Start cursor for each page discovered so far; page 0 starts at the beginning
+    private final List<DocumentSnapshot> pageCursors = new ArrayList<>();
+    private final SparseArray<List<User>> pageData = new SparseArray<>();
+    private final SparseArray<ListenerRegistration> registrations = new SparseArray<>();
+    private int firstPage;
+    private int lastPage = -1;
+    private boolean endReached;
+    private boolean ownerStarted;
+
+    public UserPager(FirebaseFirestore firestore, LifecycleOwner owner, Listener listener) {
+        this.firestore = firestore;
+        this.listener = listener;
+        // A hold with no grace period: pages detach as soon as the owner stops
+        new ListenerRegistry(0).observe(owner, "admin:users", () -> {
+            ownerStarted = true;
+            // Pages keep their data while paused; re-attaching refreshes them
+            for (int page = firstPage; page <= lastPage; page++) {
+                attach(page);
+            }
+            return () -> {
+                ownerStarted = false;
+                detachAll();
+            };
+        });
+    }
+
+    public void start() {
+        releaseAll();
+        pageCursors.clear();
+        pageCursors.add(null);
+        firstPage = 0;
+        lastPage = 0;
+        endReached = false;
+        attach(0);
+    }
+
+    public void loadNext() {
+        int next = lastPage + 1;
+        if (endReached || pageData.get(lastPage) == null || next >= pageCursors.size()) return;
+        lastPage = next;
+        attach(next);
+        if (lastPage - firstPage + 1 > MAX_LIVE_PAGES) {
+            release(firstPage++);
+            emit();
+        }
+    }
+
+    public void loadPrevious() {
+        if (firstPage == 0 || pageData.get(firstPage) == null) return;
+        firstPage--;
+        attach(firstPage);
+        if (lastPage - firstPage + 1 > MAX_LIVE_PAGES) {
+            release(lastPage--);
+            endReached = false;
+            emit();
+        }
+    }
+
+    public boolean hasPrevious() {
+        return firstPage > 0;
+    }
+
+    public void stop() {
+        releaseAll();
+    }
+
+    /** (Re)attaches the page's listener from its current start cursor, if the owner is started. */
+    private void attach(int page) {
+        detach(page);
+        if (!ownerStarted) return;
+        Query query = firestore.collection("users").orderBy(FieldPath.documentId());
+        DocumentSnapshot cursor = pageCursors.get(page);
+        if (cursor != null) {
+            query = query.startAfter(cursor);
+        }
+        registrations.put(page, SnapshotPipeline.listen("admin:users-page", query.limit(PAGE_SIZE),
+                UserPager::toPage, new SnapshotPipeline.Consumer<Page>() {
+                    @Override
+                    public void onResult(Page result) {
+                        onPageLoaded(page, result);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        listener.onError(e);
+                    }
+                }));
+    }
+
+    private void onPageLoaded(int page, Page result) {
+        if (registrations.get(page) == null) return;
+        pageData.put(page, result.users);
+
+        if (result.lastDoc != null && result.users.size() == PAGE_SIZE) {
+            if (page + 1 < pageCursors.size()) {
+                DocumentSnapshot previous = pageCursors.set(page + 1, result.lastDoc);
+                // The next page still starts after the old end; its own reload moves the one after
+                if (page < lastPage && !previous.getId().equals(result.lastDoc.getId())) {
+                    attach(page + 1);
+                }
+            } else {
+                pageCursors.add(result.lastDoc);
+            }
+            if (page == lastPage) endReached = false;
+        } else if (page == lastPage || !result.fromCache) {
+            // A short server page is the end, so later pages have emptied; cached results may be partial
+            while (lastPage > page) {
+                release(lastPage--);
+            }
+            while (pageCursors.size() > page + 1) {
+                pageCursors.remove(pageCursors.size() - 1);
+            }
+            endReached = true;
+        }
+        emit();
+    }
+
+    // Runs on the pipeline's background executor
+    private static Page toPage(QuerySnapshot snapshots) {
+        List<DocumentSnapshot> docs = snapshots.getDocuments();
+        List<User> users = new ArrayList<>(docs.size());
+        for (DocumentSnapshot doc : docs) {
+            users.add(UserMapper.fromSnapshot(doc));
+        }
+        DocumentSnapshot lastDoc = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+        return new Page(Collections.unmodifiableList(users), lastDoc, snapshots.getMetadata().isFromCache());
+    }
+
+    private void detach(int page) {
+        ListenerRegistration registration = registrations.get(page);
+        if (registration != null) {
+            registration.remove();
+            registrations.remove(page);
+        }
+    }
+
+    private void detachAll() {
+        for (int i = 0; i < registrations.size(); i++) {
+            registrations.valueAt(i).remove();
+        }
+        registrations.clear();
+    }
+
+    private void release(int page) {
+        detach(page);
+        pageData.remove(page);
+    }
+
+    private void releaseAll() {
+        detachAll();
+        pageData.clear();
+    }
+
+    private void emit() {
+        List<User> users = new ArrayList<>();
+        // A page awaiting its re-attach may still hold users that moved into the page before it
+        Set<String> seen = new HashSet<>();
+        for (int page = firstPage; page <= lastPage; page++) {
+            List<User> data = pageData.get(page);
+            if (data == null) continue;
+            for (User user : data) {
+                if (seen.add(user.getId())) {
+                    users.add(user);
+                }
+            }
+        }
+        listener.onUsersChanged(Collections.unmodifiableList(users));
+    }
+}
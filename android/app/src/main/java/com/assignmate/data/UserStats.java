@@ -0,0 +1,175 @@
+package com.assignmate.data;
+
+import android.util.Log;
+import com.assignmate.models.Assignment;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user assignment counters stored in {@code userStats/{userId}}. Every write
+ * that creates, completes, reopens or deletes an assignment carries matching
+ * {@link FieldValue#increment} deltas in the same batch, so the counters cost a
+ * single document read. {@link #repair} recomputes them from the assignments.
+ */
+public final class UserStats {
+    private static final String TAG = "UserStats";
+    public static final String COLLECTION = "userStats";
+    public static final String FIELD_TOTAL = "total";
+    public static final String FIELD_COMPLETED = "completed";
+    public static final String FIELD_PENDING = "pending";
+    public static final String FIELD_BY_SUBJECT = "bySubject";
+    public static final String FIELD_REPAIRED_AT = "repairedAt";
+    private static final long REPAIR_INTERVAL_MS = 7L * 24 * 60 * 60 * 1000;
+
+    // Users whose counters were checked in this process
+    private static final Set<String> checkedUsers = new HashSet<>();
+
+    public final long total;
+    public final long completed;
+    public final long pending;
+    public final Map<String, Long> bySubject;
+
+    private UserStats(long total, long completed, long pending, Map<String, Long> bySubject) {
+        this.total = total;
+        this.completed = completed;
+        this.pending = pending;
+        this.bySubject = Collections.unmodifiableMap(bySubject);
+    }
+
+    public static String path(String userId) {
+        return COLLECTION + "/" + userId;
+    }
+
+    public static UserStats fromSnapshot(DocumentSnapshot doc) {
+        Map<String, Long> bySubject = new HashMap<>();
+        Object subjects = doc.get(FIELD_BY_SUBJECT);
+        if (subjects instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) subjects).entrySet()) {
+                if (entry.getValue() instanceof Number) {
+                    bySubject.put(String.valueOf(entry.getKey()), ((Number) entry.getValue()).longValue());
+                }
+            }
+        }
+        return new UserStats(longOrZero(doc, FIELD_TOTAL), longOrZero(doc, FIELD_COMPLETED),
+                longOrZero(doc, FIELD_PENDING), bySubject);
+    }
+
+    /**
+     * Whether {@code doc} holds complete counters. Increments alone can create the
+     * document, e.g. for a user whose assignments predate it, and then it holds only
+     * deltas; a repair (or a client writing the whole counters) stamps
+     * {@link #FIELD_REPAIRED_AT}.
+     */
+    public static boolean hasBaseline(DocumentSnapshot doc) {
+        return doc.getTimestamp(FIELD_REPAIRED_AT) != null;
+    }
+
+    /** Deltas for moving {@code before} to {@code status}. */
+    public static WriteCoalescer.Increments statusChange(Assignment before, String status) {
+        WriteCoalescer.Increments increments = new WriteCoalescer.Increments();
+        boolean wasCompleted = isCompleted(before.getStatus());
+        boolean nowCompleted = isCompleted(status);
+        if (wasCompleted != nowCompleted) {
+            String path = path(before.getUserId());
+            increments.add(path, FIELD_COMPLETED, nowCompleted ? 1 : -1);
+            increments.add(path, FIELD_PENDING, nowCompleted ? -1 : 1);
+        }
+        return increments;
+    }
+
+    /** Deltas for deleting {@code before}. */
+    public static WriteCoalescer.Increments removal(Assignment before) {
+        return count(new WriteCoalescer.Increments(), before, -1);
+    }
+
+    public interface Callback {
+        void onStatsLoaded(UserStats stats);
+    }
+
+    /**
+     * Reads the user's counters with a single document get. If they are missing or
+     * were last rebuilt over a week ago, a repair is started (at most once per
+     * process) and the callback is skipped unless the document has a baseline.
+     */
+    public static void load(FirebaseFirestore firestore, String userId, Callback callback) {
+        ReadMetrics.getInstance().get("dashboard:user-stats", firestore.document(path(userId)))
+                .addOnSuccessListener(doc -> {
+                    Timestamp repairedAt = doc.getTimestamp(FIELD_REPAIRED_AT);
+                    boolean stale = repairedAt == null
+                            || System.currentTimeMillis() - repairedAt.toDate().getTime() > REPAIR_INTERVAL_MS;
+                    if (stale && checkedUsers.add(userId)) {
+                        repair(firestore, userId);
+                    }
+                    if (hasBaseline(doc)) {
+                        callback.onStatsLoaded(fromSnapshot(doc));
+                    }
+                });
+    }
+
+    /**
+     * Recomputes the counters from the user's assignments on the server and writes
+     * them over the stored ones. Reads every assignment once. Increments made between
+     * the recount and the write are lost until the next repair, but none are counted
+     * twice: nothing is read from the stats document beforehand.
+     */
+    public static Task<Void> repair(FirebaseFirestore firestore, String userId) {
+        return ReadMetrics.getInstance().get("stats:repair", firestore.collection("assignments")
+                        .whereEqualTo("userId", userId), Source.SERVER)
+                .continueWithTask(task -> {
+                    long total = 0;
+                    long completed = 0;
+                    Map<String, Long> bySubject = new HashMap<>();
+                    for (QueryDocumentSnapshot doc : task.getResult()) {
+                        total++;
+                        if (isCompleted(doc.getString("status"))) completed++;
+                        String subject = doc.getString("subject");
+                        if (subject != null && !subject.isEmpty()) {
+                            Long count = bySubject.get(subject);
+                            bySubject.put(subject, count != null ? count + 1 : 1);
+                        }
+                    }
+                    Map<String, Object> data = new HashMap<>();
+                    data.put(FIELD_TOTAL, total);
+                    data.put(FIELD_COMPLETED, completed);
+                    data.put(FIELD_PENDING, total - completed);
+                    data.put(FIELD_BY_SUBJECT, bySubject);
+                    data.put(FIELD_REPAIRED_AT, FieldValue.serverTimestamp());
+                    // Replaces whole fields, so subjects that no longer have assignments drop out
+                    return firestore.document(path(userId)).set(data, SetOptions.mergeFields(
+                            FIELD_TOTAL, FIELD_COMPLETED, FIELD_PENDING, FIELD_BY_SUBJECT, FIELD_REPAIRED_AT));
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to repair stats for " + userId, e));
+    }
+
+    private static WriteCoalescer.Increments count(WriteCoalescer.Increments increments,
+                                                   Assignment assignment, int sign) {
+        String path = path(assignment.getUserId());
+        increments.add(path, FIELD_TOTAL, sign);
+        increments.add(path, isCompleted(assignment.getStatus()) ? FIELD_COMPLETED : FIELD_PENDING, sign);
+        String subject = assignment.getSubject();
+        if (subject != null && !subject.isEmpty()) {
+            increments.add(path, FIELD_BY_SUBJECT + "." + subject, sign);
+        }
+        return increments;
+    }
+
+    private static boolean isCompleted(String status) {
+        return "completed".equals(status);
+    }
+
+    private static long longOrZero(DocumentSnapshot doc, String field) {
+        Long value = doc.getLong(field);
+        return value != null ? value : 0;
+    }
+}
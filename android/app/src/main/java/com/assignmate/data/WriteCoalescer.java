@@ -0,0 +1,250 @@
+package com.assignmate.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects assignment writes for a short window, merges them per document and
+ * commits them in {@link WriteBatch}es of up to 500 operations. Each submission gets
+ * exactly one callback once every batch carrying its writes has settled. Counter
+ * {@link Increments} attached to a document write always commit in the same batch
+ * as that write. Must be used on the main thread.
+ */
+public class WriteCoalescer {
+    public static final int MAX_BATCH_SIZE = 500;
+    private static final long DEFAULT_WINDOW_MS = 250;
+
+    public interface Callback {
+        void onComplete(int succeeded, int failed);
+    }
+
+    private static final class Request {
+        final Callback callback;
+        int remaining;
+        int succeeded;
+        int failed;
+
+        Request(Callback callback, int size) {
+            this.callback = callback;
+            this.remaining = size;
+        }
+
+        void settle(boolean success) {
+            if (success) succeeded++; else failed++;
+            if (--remaining == 0 && callback != null) {
+                callback.onComplete(succeeded, failed);
+            }
+        }
+    }
+
+    /**
+     * Counter deltas keyed by document path, then field. A field of the form
+     * {@code "map.key"} increments {@code key} inside the map field {@code map}.
+     */
+    public static final class Increments {
+        final Map<String, Map<String, Long>> deltas = new HashMap<>();
+
+        public Increments add(String documentPath, String field, long delta) {
+            if (delta == 0) return this;
+            Map<String, Long> fields = deltas.get(documentPath);
+            if (fields == null) {
+                fields = new HashMap<>();
+                deltas.put(documentPath, fields);
+            }
+            Long current = fields.get(field);
+            fields.put(field, current != null ? current + delta : delta);
+            return this;
+        }
+
+        void addAll(Increments other) {
+            for (Map.Entry<String, Map<String, Long>> path : other.deltas.entrySet()) {
+                for (Map.Entry<String, Long> field : path.getValue().entrySet()) {
+                    add(path.getKey(), field.getKey(), field.getValue());
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return deltas.isEmpty();
+        }
+    }
+
+    private static final class PendingWrite {
+        Map<String, Object> updates;
+        boolean delete;
+        // Accumulates across merged writes, even when a delete supersedes the updates
+        final Increments increments = new Increments();
+        final List<Request> requests = new ArrayList<>();
+    }
+
+    private final FirebaseFirestore firestore;
+    private final String collection;
+    private final long windowMs;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+    private final Map<String, PendingWrite> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    public WriteCoalescer(FirebaseFirestore firestore, String collection) {
+        this(firestore, collection, DEFAULT_WINDOW_MS);
+    }
+
+    public WriteCoalescer(FirebaseFirestore firestore, String collection, long windowMs) {
+        this.firestore = firestore;
+        this.collection = collection;
+        this.windowMs = windowMs;
+    }
+
+    /** Applies the same field updates to every document. */
+    public void update(List<String> documentIds, Map<String, Object> updates, Callback callback) {
+        update(documentIds, updates, Collections.<String, Increments>emptyMap(), callback);
+    }
+
+    /** Like {@link #update(List, Map, Callback)}, with counter deltas keyed by document id. */
+    public void update(List<String> documentIds, Map<String, Object> updates,
+                       Map<String, Increments> increments, Callback callback) {
+        Request request = new Request(callback, documentIds.size());
+        for (String id : documentIds) {
+            PendingWrite write = pendingFor(id);
+            if (!write.delete) {
+                if (write.updates == null) write.updates = new HashMap<>();
+                write.updates.putAll(updates);
+            }
+            addIncrements(write, increments.get(id));
+            write.requests.add(request);
+        }
+        schedule(documentIds.isEmpty(), request);
+    }
+
+    public void delete(List<String> documentIds, Callback callback) {
+        delete(documentIds, Collections.<String, Increments>emptyMap(), callback);
+    }
+
+    public void delete(List<String> documentIds, Map<String, Increments> increments, Callback callback) {
+        Request request = new Request(callback, documentIds.size());
+        for (String id : documentIds) {
+            PendingWrite write = pendingFor(id);
+            write.delete = true;
+            write.updates = null;
+            addIncrements(write, increments.get(id));
+            write.requests.add(request);
+        }
+        schedule(documentIds.isEmpty(), request);
+    }
+
+    private static void addIncrements(PendingWrite write, Increments increments) {
+        if (increments != null) {
+            write.increments.addAll(increments);
+        }
+    }
+
+    /** Commits everything queued so far without waiting for the window to close. */
+    public void flush() {
+        handler.removeCallbacks(flushRunnable);
+        flushScheduled = false;
+        if (pending.isEmpty()) return;
+
+        List<Map.Entry<String, PendingWrite>> writes = new ArrayList<>(pending.entrySet());
+        pending.clear();
+
+        int start = 0;
+        while (start < writes.size()) {
+            // Each batch carries its documents plus one write per counter document they touch
+            Increments increments = new Increments();
+            Set<String> counterPaths = new HashSet<>();
+            int end = start;
+            while (end < writes.size()) {
+                Increments next = writes.get(end).getValue().increments;
+                Set<String> paths = new HashSet<>(counterPaths);
+                paths.addAll(next.deltas.keySet());
+                if (end > start && end - start + 1 + paths.size() > MAX_BATCH_SIZE) break;
+                increments.addAll(next);
+                counterPaths = paths;
+                end++;
+            }
+            List<Map.Entry<String, PendingWrite>> chunk = writes.subList(start, end);
+            start = end;
+
+            WriteBatch batch = firestore.batch();
+            for (Map.Entry<String, PendingWrite> entry : chunk) {
+                DocumentReference ref = firestore.collection(collection).document(entry.getKey());
+                if (entry.getValue().delete) {
+                    batch.delete(ref);
+                } else {
+                    batch.update(ref, entry.getValue().updates);
+                }
+            }
+            if (!increments.isEmpty()) {
+                writeIncrements(batch, increments);
+            }
+            Task<Void> commit = batch.commit();
+            commit.addOnCompleteListener(task -> {
+                for (Map.Entry<String, PendingWrite> entry : chunk) {
+                    for (Request request : entry.getValue().requests) {
+                        request.settle(task.isSuccessful());
+                    }
+                }
+            });
+        }
+    }
+
+    private void writeIncrements(WriteBatch batch, Increments increments) {
+        for (Map.Entry<String, Map<String, Long>> path : increments.deltas.entrySet()) {
+            // Nested maps, not dotted keys: set() with merge treats keys literally
+            Map<String, Object> data = new HashMap<>();
+            for (Map.Entry<String, Long> field : path.getValue().entrySet()) {
+                String name = field.getKey();
+                int dot = name.indexOf('.');
+                if (dot < 0) {
+                    data.put(name, FieldValue.increment(field.getValue()));
+                } else {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> nested = (Map<String, Object>) data.get(name.substring(0, dot));
+                    if (nested == null) {
+                        nested = new HashMap<>();
+                        data.put(name.substring(0, dot), nested);
+                    }
+                    nested.put(name.substring(dot + 1), FieldValue.increment(field.getValue()));
+                }
+            }
+            batch.set(firestore.document(path.getKey()), data, SetOptions.merge());
+        }
+    }
+
+    private PendingWrite pendingFor(String id) {
+        PendingWrite write = pending.get(id);
+        if (write == null) {
+            write = new PendingWrite();
+            pending.put(id, write);
+        }
+        return write;
+    }
+
+    private void schedule(boolean empty, Request request) {
+        if (empty) {
+            if (request.callback != null) request.callback.onComplete(0, 0);
+            return;
+        }
+        // The window opens with the first queued write; later writes ride along
+        if (pending.size() >= MAX_BATCH_SIZE) {
+            flush();
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            handler.postDelayed(flushRunnable, windowMs);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.assignmate.models;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps {@link Assignment} from Firestore without the reflective {@code toObject}
+ * path, which dominates listener cost on large snapshots, and builds the field
+ * maps for partial updates.
+ */
+public final class AssignmentMapper {
+    public static final String FIELD_TITLE = "title";
+    public static final String FIELD_DESCRIPTION = "description";
+    public static final String FIELD_SUBJECT = "subject";
+    public static final String FIELD_DUE_DATE = "dueDate";
+    public static final String FIELD_PRIORITY = "priority";
+    public static final String FIELD_STATUS = "status";
+    public static final String FIELD_USER_ID = "userId";
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+
+    private AssignmentMapper() {
+    }
+
+    public static Assignment fromSnapshot(DocumentSnapshot doc) {
+        Assignment assignment = new Assignment();
+        assignment.setId(doc.getId());
+        assignment.setTitle(doc.getString(FIELD_TITLE));
+        assignment.setDescription(doc.getString(FIELD_DESCRIPTION));
+        assignment.setSubject(doc.getString(FIELD_SUBJECT));
+        assignment.setDueDate(doc.getDate(FIELD_DUE_DATE));
+        assignment.setPriority(doc.getString(FIELD_PRIORITY));
+        assignment.setStatus(doc.getString(FIELD_STATUS));
+        assignment.setUserId(doc.getString(FIELD_USER_ID));
+        assignment.setCreatedAt(doc.getDate(FIELD_CREATED_AT));
+        assignment.setUpdatedAt(doc.getDate(FIELD_UPDATED_AT));
+        return assignment;
+    }
+
+    /** Fields for a status change; {@code updatedAt} is stamped so delta listeners pick it up. */
+    public static Map<String, Object> statusUpdate(String status) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_STATUS, status);
+        data.put(FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+        return data;
+    }
+
+    /** Fields for a reschedule; {@code updatedAt} is stamped so delta listeners pick it up. */
+    public static Map<String, Object> dueDateUpdate(Date dueDate) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_DUE_DATE, dueDate);
+        data.put(FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+        return data;
+    }
+}
@@ -0,0 +1,29 @@
+package com.assignmate.models;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+/**
+ * Maps {@link User} from Firestore without reflection. Reads the stored
+ * {@code isAdmin} field directly; the bean mapper looked for {@code admin}.
+ */
+public final class UserMapper {
+    public static final String FIELD_EMAIL = "email";
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_IS_ADMIN = "isAdmin";
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_LAST_LOGIN_AT = "lastLoginAt";
+
+    private UserMapper() {
+    }
+
+    public static User fromSnapshot(DocumentSnapshot doc) {
+        User user = new User();
+        user.setId(doc.getId());
+        user.setEmail(doc.getString(FIELD_EMAIL));
+        user.setName(doc.getString(FIELD_NAME));
+        user.setAdmin(Boolean.TRUE.equals(doc.getBoolean(FIELD_IS_ADMIN)));
+        user.setCreatedAt(doc.getDate(FIELD_CREATED_AT));
+        user.setLastLoginAt(doc.getDate(FIELD_LAST_LOGIN_AT));
+        return user;
+    }
+}
@@ -0,0 +1,45 @@
+package com.assignmate.reminders;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import com.assignmate.data.AssignmentDatabase;
+import com.assignmate.models.Assignment;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fires due reminders from the local store and re-arms the next alarm. Also runs
+ * after a reboot or app update, which drop pending alarms.
+ */
+public class ReminderReceiver extends BroadcastReceiver {
+    public static final String ACTION_REMIND = "com.assignmate.action.REMIND";
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (!ACTION_REMIND.equals(action)
+                && !Intent.ACTION_BOOT_COMPLETED.equals(action)
+                && !Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)) {
+            return;
+        }
+        ReminderScheduler scheduler = ReminderScheduler.getInstance(context);
+        String userId = scheduler.getUserId();
+        if (userId == null) return;
+
+        // The local store is on disk, so read it off the main thread; goAsync keeps the
+        // process alive until the read and the re-arm are done
+        PendingResult result = goAsync();
+        EXECUTOR.execute(() -> {
+            try {
+                // The shared instance the repository writes through; never closed
+                List<Assignment> stored = AssignmentDatabase.getInstance(context).getAssignments(userId);
+                scheduler.onAlarm(stored, System.currentTimeMillis());
+            } finally {
+                result.finish();
+            }
+        });
+    }
+}
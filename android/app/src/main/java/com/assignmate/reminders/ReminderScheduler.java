@@ -0,0 +1,176 @@
+package com.assignmate.reminders;
+
+import android.app.AlarmManager;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import com.assignmate.activities.AssignmentsActivity;
+import com.assignmate.core.AssignmentText;
+import com.assignmate.core.ReminderQueue;
+import com.assignmate.data.AssignmentRepository;
+import com.assignmate.models.Assignment;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Due-date reminders driven by a single inexact alarm for the earliest upcoming
+ * reminder. While the app runs the queue follows the repository's document
+ * changes and only moves the alarm when the earliest reminder changes; when the
+ * alarm fires, {@link ReminderReceiver} rebuilds the queue from the local store,
+ * posts everything inside the batch window as one notification and arms the next
+ * alarm. Never reads from the network.
+ */
+public class ReminderScheduler {
+    public static final long LEAD_TIME_MS = 24L * 60 * 60 * 1000;
+    // Also the alarm's delivery window, so the system can fold it into other wakeups
+    public static final long BATCH_WINDOW_MS = 30L * 60 * 1000;
+    private static final String CHANNEL_ID = "reminders";
+    private static final int NOTIFICATION_ID = 1;
+    private static final String PREFS = "reminders";
+    private static final String KEY_USER_ID = "userId";
+    private static final String KEY_FIRED = "fired";
+    private static ReminderScheduler instance;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final AlarmManager alarmManager;
+    private final ReminderQueue queue = new ReminderQueue(LEAD_TIME_MS, BATCH_WINDOW_MS);
+    private long scheduledAt = Long.MAX_VALUE;
+
+    private ReminderScheduler(Context context) {
+        this.context = context.getApplicationContext();
+        this.prefs = this.context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        this.alarmManager = (AlarmManager) this.context.getSystemService(Context.ALARM_SERVICE);
+    }
+
+    public static synchronized ReminderScheduler getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReminderScheduler(context);
+        }
+        return instance;
+    }
+
+    /** Keeps the alarm in step with {@code userId}'s assignments while registered with the repository. */
+    public AssignmentRepository.ChangeListener listenerFor(String userId) {
+        prefs.edit().putString(KEY_USER_ID, userId).apply();
+        return new AssignmentRepository.ChangeListener() {
+            @Override
+            public void onAssignmentsReset(List<Assignment> assignments) {
+                synchronized (ReminderScheduler.this) {
+                    queue.reset(assignments, firedKeys());
+                    reschedule(System.currentTimeMillis());
+                }
+            }
+
+            @Override
+            public void onAssignmentsChanged(List<Assignment> upserts, List<String> removedIds) {
+                synchronized (ReminderScheduler.this) {
+                    for (String id : removedIds) {
+                        queue.remove(id);
+                    }
+                    for (Assignment assignment : upserts) {
+                        queue.upsert(assignment);
+                    }
+                    reschedule(System.currentTimeMillis());
+                }
+            }
+        };
+    }
+
+    /** The user whose reminders are armed, or null once signed out. */
+    public String getUserId() {
+        return prefs.getString(KEY_USER_ID, null);
+    }
+
+    /**
+     * Delivers the reminders due around {@code now} from {@code stored}, the local
+     * copy of the user's assignments, and arms the next alarm.
+     */
+    public synchronized void onAlarm(List<Assignment> stored, long now) {
+        queue.reset(stored, firedKeys());
+        List<ReminderQueue.Reminder> due = queue.poll(now);
+        prefs.edit().putStringSet(KEY_FIRED, new HashSet<>(queue.firedKeys(now))).apply();
+        if (!due.isEmpty()) {
+            notify(due);
+        }
+        // The alarm that woke us is spent
+        scheduledAt = Long.MAX_VALUE;
+        reschedule(now);
+    }
+
+    /** Disarms reminders, e.g. on sign-out. */
+    public synchronized void cancel() {
+        prefs.edit().clear().apply();
+        queue.reset(Collections.emptyList(), Collections.emptySet());
+        alarmManager.cancel(alarmIntent());
+        scheduledAt = Long.MAX_VALUE;
+    }
+
+    private Set<String> firedKeys() {
+        return prefs.getStringSet(KEY_FIRED, Collections.emptySet());
+    }
+
+    private void reschedule(long now) {
+        long next = queue.nextWakeup(now);
+        if (next == scheduledAt) return;
+        scheduledAt = next;
+        if (next == Long.MAX_VALUE) {
+            alarmManager.cancel(alarmIntent());
+        } else {
+            // Inexact, so it needs no exact-alarm permission and can share a wakeup
+            alarmManager.setWindow(AlarmManager.RTC_WAKEUP, Math.max(next, now), BATCH_WINDOW_MS, alarmIntent());
+        }
+    }
+
+    private PendingIntent alarmIntent() {
+        Intent intent = new Intent(context, ReminderReceiver.class).setAction(ReminderReceiver.ACTION_REMIND);
+        return PendingIntent.getBroadcast(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private void notify(List<ReminderQueue.Reminder> due) {
+        NotificationManagerCompat manager = NotificationManagerCompat.from(context);
+        if (!manager.areNotificationsEnabled()) return;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "Due date reminders",
+                    NotificationManager.IMPORTANCE_DEFAULT);
+            context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+
+        AssignmentText text = new AssignmentText(Locale.getDefault());
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(android.R.drawable.ic_popup_reminder)
+                .setContentIntent(PendingIntent.getActivity(context, 0,
+                        new Intent(context, AssignmentsActivity.class), PendingIntent.FLAG_IMMUTABLE))
+                .setAutoCancel(true);
+        if (due.size() == 1) {
+            ReminderQueue.Reminder reminder = due.get(0);
+            builder.setContentTitle(reminder.title)
+                    .setContentText(text.dueText(new Date(reminder.dueAt)));
+        } else {
+            NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle();
+            for (ReminderQueue.Reminder reminder : due) {
+                style.addLine(reminder.title + " – " + text.dueText(new Date(reminder.dueAt)));
+            }
+            builder.setContentTitle(due.size() + " assignments due soon")
+                    .setContentText(due.get(0).title + " and " + (due.size() - 1) + " more")
+                    .setStyle(style)
+                    .setNumber(due.size());
+        }
+        try {
+            manager.notify(NOTIFICATION_ID, builder.build());
+        } catch (SecurityException e) {
+            // Notification permission revoked between the check and the post
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/** Synthetic assignments shaped like the emulator seed data, from a fixed seed. */
+final class BenchmarkData {
+    static final long NOW = 1_700_000_000_000L;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final String[] SUBJECTS = {
+            "Mathematics", "Physics", "Chemistry", "Biology", "History", "Literature", "Computer Science"};
+    private static final String[] PRIORITIES = {"low", "medium", "high"};
+    private static final String[] STATUSES = {"pending", "in_progress", "completed"};
+
+    private BenchmarkData() {
+    }
+
+    static List<Assignment> assignments(int count) {
+        Random random = new Random(42);
+        List<Assignment> assignments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+            // Due dates spread six months either side of NOW
+            long due = NOW + (long) ((random.nextDouble() - 0.5) * 365 * DAY_MS);
+            Assignment assignment = new Assignment(subject + " assignment " + i,
+                    "Synthetic assignment " + i, subject, new Date(due),
+                    PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            assignment.setId("assignment-" + i);
+            assignment.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            assignments.add(assignment);
+        }
+        return assignments;
+    }
+}
@@ -0,0 +1,54 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Row text formatting and calendar bucketing, per full list. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormatBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Assignment> assignments;
+    private AssignmentText text;
+    private DateWindows dateWindows;
+
+    @Setup
+    public void createData() {
+        assignments = BenchmarkData.assignments(size);
+        text = new AssignmentText(Locale.US);
+        dateWindows = new DateWindows();
+    }
+
+    @Benchmark
+    public void formatRows(Blackhole blackhole) {
+        for (Assignment assignment : assignments) {
+            String status = AssignmentText.status(assignment);
+            blackhole.consume(text.dueText(assignment.getDueDate()));
+            blackhole.consume(AssignmentText.statusLabel(status));
+            blackhole.consume(AssignmentText.priorityLabel(assignment.getPriority()));
+        }
+    }
+
+    @Benchmark
+    public int[] bucketByDayOfMonth() {
+        int[] counts = new int[32];
+        for (Assignment assignment : assignments) {
+            counts[dateWindows.dayOfMonth(assignment.getDueDate().getTime())]++;
+        }
+        return counts;
+    }
+}
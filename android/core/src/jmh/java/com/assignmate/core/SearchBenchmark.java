@@ -0,0 +1,62 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Search-as-you-type latency against the index and against a linear scan. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+    private static final int LIMIT = 50;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    // A selective query, a broad one and one too short for a trigram
+    @Param({"assignment 42", "physics", "ch"})
+    public String query;
+
+    private List<Assignment> assignments;
+    private AssignmentSearchIndex index;
+    private Assignment changed;
+
+    @Setup(Level.Trial)
+    public void createData() {
+        assignments = BenchmarkData.assignments(size);
+        index = new AssignmentSearchIndex();
+        index.reset(assignments);
+        changed = assignments.get(size / 2);
+    }
+
+    @Benchmark
+    public List<Assignment> search() {
+        return index.search(query, LIMIT);
+    }
+
+    /** One document change, as on every later snapshot. */
+    @Benchmark
+    public int upsertOne() {
+        index.remove(changed.getId());
+        index.upsert(changed);
+        return index.size();
+    }
+
+    /** Building the index from the first snapshot. */
+    @Benchmark
+    public int build() {
+        AssignmentSearchIndex fresh = new AssignmentSearchIndex();
+        fresh.reset(assignments);
+        return fresh.size();
+    }
+}
@@ -0,0 +1,85 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Sorting and filtering the in-memory list the way the screens do. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortFilterBenchmark {
+    private static final long WEEK_MS = 7L * 24 * 60 * 60 * 1000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Assignment> assignments;
+    private AssignmentQueryIndex index;
+    private final AssignmentQueryIndex.Filter pendingHigh = new AssignmentQueryIndex.Filter("pending", "high", null);
+
+    @Setup
+    public void createData() {
+        assignments = BenchmarkData.assignments(size);
+        index = new AssignmentQueryIndex();
+        index.reset(assignments);
+    }
+
+    @Benchmark
+    public List<Assignment> sortByDueDate() {
+        List<Assignment> copy = new ArrayList<>(assignments);
+        Collections.sort(copy, AssignmentLists.BY_DUE_DATE);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Assignment> sortByDueDateThenId() {
+        List<Assignment> copy = new ArrayList<>(assignments);
+        Collections.sort(copy, AssignmentLists.BY_DUE_DATE_THEN_ID);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Assignment> filterByStatus() {
+        return AssignmentLists.withStatus(assignments, "pending");
+    }
+
+    @Benchmark
+    public List<Assignment> sortByPriority() {
+        List<Assignment> copy = new ArrayList<>(assignments);
+        Collections.sort(copy, AssignmentLists.BY_PRIORITY);
+        return copy;
+    }
+
+    /** Switching the list to priority order once the index is maintained. */
+    @Benchmark
+    public List<Assignment> indexSortByPriority() {
+        return index.query(AssignmentQueryIndex.Filter.ANY, AssignmentQueryIndex.Sort.PRIORITY);
+    }
+
+    /** Toggling a status and priority filter once the index is maintained. */
+    @Benchmark
+    public List<Assignment> indexFilterPendingHigh() {
+        return index.query(pendingHigh, AssignmentQueryIndex.Sort.DUE_DATE);
+    }
+
+    @Benchmark
+    public List<Assignment> filterOverdue() {
+        return AssignmentLists.overdue(assignments, BenchmarkData.NOW);
+    }
+
+    @Benchmark
+    public List<Assignment> filterDueThisWeek() {
+        return AssignmentLists.dueBetween(assignments, BenchmarkData.NOW, BenchmarkData.NOW + WEEK_MS);
+    }
+}
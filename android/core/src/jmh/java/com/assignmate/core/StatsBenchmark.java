@@ -0,0 +1,80 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Cost of building the dashboard counters and of keeping them current. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatsBenchmark {
+    private static final long HOUR_MS = 60 * 60 * 1000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Assignment> assignments;
+    private AssignmentStatsEngine engine;
+    private Assignment changed;
+    private long clock;
+
+    @Setup(Level.Trial)
+    public void createData() {
+        assignments = BenchmarkData.assignments(size);
+        changed = assignments.get(size / 2);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetEngine() {
+        engine = new AssignmentStatsEngine();
+        engine.reset(assignments, BenchmarkData.NOW);
+        clock = BenchmarkData.NOW;
+    }
+
+    /** Full rebuild, as on the first snapshot. */
+    @Benchmark
+    public int reset() {
+        AssignmentStatsEngine fresh = new AssignmentStatsEngine();
+        fresh.reset(assignments, BenchmarkData.NOW);
+        return fresh.getOverdue();
+    }
+
+    /** One document change, as on every later snapshot. */
+    @Benchmark
+    public int upsertOne() {
+        engine.upsert(changed, BenchmarkData.NOW);
+        return engine.getPending();
+    }
+
+    /** Deadlines passing an hour at a time. */
+    @Benchmark
+    public boolean advanceClock() {
+        clock += HOUR_MS;
+        return engine.advanceTo(clock);
+    }
+
+    /** The old approach: rescan every assignment with isOverdue. */
+    @Benchmark
+    public int fullScan() {
+        int completed = 0;
+        int overdue = 0;
+        for (Assignment assignment : assignments) {
+            if ("completed".equals(assignment.getStatus())) {
+                completed++;
+            } else if (assignment.isOverdue(BenchmarkData.NOW)) {
+                overdue++;
+            }
+        }
+        return completed + overdue;
+    }
+}
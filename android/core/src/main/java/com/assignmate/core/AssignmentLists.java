@@ -0,0 +1,75 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/** Orderings and filters over in-memory assignment lists. */
+public final class AssignmentLists {
+    /** Earliest due first; assignments without a due date go last. */
+    public static final Comparator<Assignment> BY_DUE_DATE = (a, b) -> {
+        if (a.getDueDate() == null) return b.getDueDate() == null ? 0 : 1;
+        if (b.getDueDate() == null) return -1;
+        return a.getDueDate().compareTo(b.getDueDate());
+    };
+
+    /** Due date, then id: the order of the local store's keyset pages. */
+    public static final Comparator<Assignment> BY_DUE_DATE_THEN_ID = BY_DUE_DATE.thenComparing(
+            Assignment::getId, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    /** Most recently created first, then id. */
+    public static final Comparator<Assignment> BY_CREATED_AT_DESC = Comparator.comparing(
+            Assignment::getCreatedAt, Comparator.nullsLast(Comparator.<Date>reverseOrder()))
+            .thenComparing(Assignment::getId, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    /** High, medium, low, then by due date and id. */
+    public static final Comparator<Assignment> BY_PRIORITY = Comparator.<Assignment>comparingInt(
+            a -> priorityRank(a.getPriority())).thenComparing(BY_DUE_DATE_THEN_ID);
+
+    private AssignmentLists() {
+    }
+
+    /** 0 for high priority, 1 for medium, 2 for low and 3 for anything else. */
+    public static int priorityRank(String priority) {
+        if ("high".equals(priority)) return 0;
+        if ("medium".equals(priority)) return 1;
+        if ("low".equals(priority)) return 2;
+        return 3;
+    }
+
+    public static List<Assignment> withStatus(Collection<Assignment> assignments, String status) {
+        List<Assignment> result = new ArrayList<>();
+        for (Assignment assignment : assignments) {
+            if (status.equals(assignment.getStatus())) {
+                result.add(assignment);
+            }
+        }
+        return result;
+    }
+
+    public static List<Assignment> overdue(Collection<Assignment> assignments, long now) {
+        List<Assignment> result = new ArrayList<>();
+        for (Assignment assignment : assignments) {
+            if (assignment.isOverdue(now)) {
+                result.add(assignment);
+            }
+        }
+        return result;
+    }
+
+    /** Assignments due in {@code [start, end]}, both inclusive. */
+    public static List<Assignment> dueBetween(Collection<Assignment> assignments, long start, long end) {
+        List<Assignment> result = new ArrayList<>();
+        for (Assignment assignment : assignments) {
+            if (assignment.getDueDate() == null) continue;
+            long due = assignment.getDueDate().getTime();
+            if (due >= start && due <= end) {
+                result.add(assignment);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,181 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Secondary indices over the loaded assignments so any sort order or
+ * status/priority/subject filter is an in-memory projection rather than a new
+ * Firestore query. Each sort order is a sorted set and each filter field a hash
+ * index; both are updated one document at a time from snapshot changes.
+ * Not thread-safe.
+ */
+public class AssignmentQueryIndex {
+    public enum Sort {
+        DUE_DATE(AssignmentLists.BY_DUE_DATE_THEN_ID),
+        NEWEST(AssignmentLists.BY_CREATED_AT_DESC),
+        PRIORITY(AssignmentLists.BY_PRIORITY);
+
+        final Comparator<Assignment> comparator;
+
+        Sort(Comparator<Assignment> comparator) {
+            this.comparator = comparator;
+        }
+
+        public Comparator<Assignment> comparator() {
+            return comparator;
+        }
+    }
+
+    /** Matches assignments equal to every non-null field. */
+    public static final class Filter {
+        public static final Filter ANY = new Filter(null, null, null);
+
+        public final String status;
+        public final String priority;
+        public final String subject;
+
+        public Filter(String status, String priority, String subject) {
+            this.status = status;
+            this.priority = priority;
+            this.subject = subject;
+        }
+
+        public Filter withStatus(String status) {
+            return new Filter(status, priority, subject);
+        }
+
+        public Filter withPriority(String priority) {
+            return new Filter(status, priority, subject);
+        }
+
+        public Filter withSubject(String subject) {
+            return new Filter(status, priority, subject);
+        }
+
+        public boolean isAny() {
+            return status == null && priority == null && subject == null;
+        }
+
+        public boolean matches(Assignment assignment) {
+            return (status == null || status.equals(assignment.getStatus()))
+                    && (priority == null || priority.equals(assignment.getPriority()))
+                    && (subject == null || subject.equals(assignment.getSubject()));
+        }
+    }
+
+    private final Map<String, Assignment> entries = new HashMap<>();
+    private final Map<Sort, TreeSet<Assignment>> sorted = new EnumMap<>(Sort.class);
+    private final Map<String, Set<String>> byStatus = new HashMap<>();
+    private final Map<String, Set<String>> byPriority = new HashMap<>();
+    private final Map<String, Set<String>> bySubject = new HashMap<>();
+
+    public AssignmentQueryIndex() {
+        for (Sort sort : Sort.values()) {
+            sorted.put(sort, new TreeSet<>(sort.comparator));
+        }
+    }
+
+    public void reset(Collection<Assignment> assignments) {
+        entries.clear();
+        for (TreeSet<Assignment> set : sorted.values()) {
+            set.clear();
+        }
+        byStatus.clear();
+        byPriority.clear();
+        bySubject.clear();
+        for (Assignment assignment : assignments) {
+            upsert(assignment);
+        }
+    }
+
+    public void upsert(Assignment assignment) {
+        remove(assignment.getId());
+        entries.put(assignment.getId(), assignment);
+        for (TreeSet<Assignment> set : sorted.values()) {
+            set.add(assignment);
+        }
+        add(byStatus, assignment.getStatus(), assignment.getId());
+        add(byPriority, assignment.getPriority(), assignment.getId());
+        add(bySubject, assignment.getSubject(), assignment.getId());
+    }
+
+    public void remove(String assignmentId) {
+        // The sorted sets locate entries by their indexed fields, so remove the stored copy
+        Assignment previous = entries.remove(assignmentId);
+        if (previous == null) return;
+        for (TreeSet<Assignment> set : sorted.values()) {
+            set.remove(previous);
+        }
+        remove(byStatus, previous.getStatus(), assignmentId);
+        remove(byPriority, previous.getPriority(), assignmentId);
+        remove(bySubject, previous.getSubject(), assignmentId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Subjects present in the index, alphabetically. */
+    public List<String> subjects() {
+        List<String> subjects = new ArrayList<>(bySubject.keySet());
+        Collections.sort(subjects);
+        return subjects;
+    }
+
+    public List<Assignment> query(Filter filter, Sort sort) {
+        if (filter.isAny()) {
+            return new ArrayList<>(sorted.get(sort));
+        }
+
+        // Scan the most selective filter field's ids, then order just the matches
+        Set<String> candidates = null;
+        if (filter.status != null) candidates = smaller(candidates, byStatus.get(filter.status));
+        if (filter.priority != null) candidates = smaller(candidates, byPriority.get(filter.priority));
+        if (filter.subject != null) candidates = smaller(candidates, bySubject.get(filter.subject));
+        if (candidates.isEmpty()) return new ArrayList<>();
+
+        List<Assignment> result = new ArrayList<>();
+        for (String id : candidates) {
+            Assignment assignment = entries.get(id);
+            if (filter.matches(assignment)) {
+                result.add(assignment);
+            }
+        }
+        Collections.sort(result, sort.comparator);
+        return result;
+    }
+
+    private static Set<String> smaller(Set<String> current, Set<String> ids) {
+        if (ids == null) return Collections.emptySet();
+        return current == null || ids.size() < current.size() ? ids : current;
+    }
+
+    private static void add(Map<String, Set<String>> index, String key, String id) {
+        if (key == null) return;
+        Set<String> ids = index.get(key);
+        if (ids == null) {
+            ids = new HashSet<>();
+            index.put(key, ids);
+        }
+        ids.add(id);
+    }
+
+    private static void remove(Map<String, Set<String>> index, String key, String id) {
+        if (key == null) return;
+        Set<String> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
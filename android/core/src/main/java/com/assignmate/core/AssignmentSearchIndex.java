@@ -0,0 +1,146 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Substring search over assignment titles, descriptions and subjects, backed by a
+ * trigram inverted index. A query is split into whitespace-separated terms that
+ * must all match; the smallest posting list among the terms' trigrams gives the
+ * candidates, which are then checked with a plain substring test. Updated one
+ * document at a time from snapshot changes. Not thread-safe.
+ */
+public class AssignmentSearchIndex {
+    private static final class Entry {
+        final Assignment assignment;
+        final String text;
+        final Set<Long> trigrams;
+
+        Entry(Assignment assignment, String text, Set<Long> trigrams) {
+            this.assignment = assignment;
+            this.text = text;
+            this.trigrams = trigrams;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<Long, Set<String>> postings = new HashMap<>();
+
+    public void reset(Collection<Assignment> assignments) {
+        entries.clear();
+        postings.clear();
+        for (Assignment assignment : assignments) {
+            upsert(assignment);
+        }
+    }
+
+    public void upsert(Assignment assignment) {
+        String text = normalize(assignment);
+        Entry previous = entries.get(assignment.getId());
+        if (previous != null && previous.text.equals(text)) {
+            // Status or date changes keep the postings; only the result object moves on
+            entries.put(assignment.getId(), new Entry(assignment, text, previous.trigrams));
+            return;
+        }
+        remove(assignment.getId());
+        Set<Long> trigrams = trigrams(text);
+        entries.put(assignment.getId(), new Entry(assignment, text, trigrams));
+        for (Long trigram : trigrams) {
+            Set<String> ids = postings.get(trigram);
+            if (ids == null) {
+                ids = new HashSet<>();
+                postings.put(trigram, ids);
+            }
+            ids.add(assignment.getId());
+        }
+    }
+
+    public void remove(String assignmentId) {
+        Entry entry = entries.remove(assignmentId);
+        if (entry == null) return;
+        for (Long trigram : entry.trigrams) {
+            Set<String> ids = postings.get(trigram);
+            if (ids != null && ids.remove(assignmentId) && ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Assignments matching every term of {@code query}, by due date, at most {@code limit}. */
+    public List<Assignment> search(String query, int limit) {
+        List<String> terms = new ArrayList<>();
+        for (String term : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            if (!term.isEmpty()) terms.add(term);
+        }
+        if (terms.isEmpty()) return Collections.emptyList();
+
+        Collection<String> candidates = null;
+        for (String term : terms) {
+            for (int i = 0; i + 3 <= term.length(); i++) {
+                Set<String> ids = postings.get(trigram(term, i));
+                if (ids == null) return Collections.emptyList();
+                if (candidates == null || ids.size() < candidates.size()) {
+                    candidates = ids;
+                }
+            }
+        }
+        // Terms shorter than a trigram can only be checked by scanning
+        if (candidates == null) candidates = entries.keySet();
+
+        List<Assignment> matches = new ArrayList<>();
+        for (String id : candidates) {
+            Entry entry = entries.get(id);
+            if (containsAll(entry.text, terms)) {
+                matches.add(entry.assignment);
+            }
+        }
+        Collections.sort(matches, AssignmentLists.BY_DUE_DATE_THEN_ID);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    private static boolean containsAll(String text, List<String> terms) {
+        for (String term : terms) {
+            if (!text.contains(term)) return false;
+        }
+        return true;
+    }
+
+    // Fields are joined by a newline, which no query term contains, so no match spans two fields
+    private static String normalize(Assignment assignment) {
+        StringBuilder text = new StringBuilder();
+        append(text, assignment.getTitle());
+        append(text, assignment.getDescription());
+        append(text, assignment.getSubject());
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void append(StringBuilder text, String field) {
+        if (field == null) return;
+        if (text.length() > 0) text.append('\n');
+        text.append(field);
+    }
+
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(trigram(text, i));
+        }
+        return trigrams;
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
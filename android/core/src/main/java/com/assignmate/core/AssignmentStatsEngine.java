@@ -0,0 +1,152 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Completed/pending/overdue counters maintained incrementally from document
+ * changes. Pending assignments sit in a min-heap keyed by due date so they can be
+ * moved to overdue the moment their deadline passes, without rescanning the set.
+ * Not thread-safe.
+ */
+public class AssignmentStatsEngine {
+    private enum Bucket { COMPLETED, PENDING, OVERDUE }
+
+    private static final class Tracked {
+        final Bucket bucket;
+        final long dueAt;
+
+        Tracked(Bucket bucket, long dueAt) {
+            this.bucket = bucket;
+            this.dueAt = dueAt;
+        }
+    }
+
+    private static final class Deadline implements Comparable<Deadline> {
+        final long dueAt;
+        final String id;
+
+        Deadline(long dueAt, String id) {
+            this.dueAt = dueAt;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Deadline other) {
+            return Long.compare(dueAt, other.dueAt);
+        }
+    }
+
+    private final Map<String, Tracked> tracked = new HashMap<>();
+    // Lazily pruned: entries whose assignment changed or left are skipped on poll
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>();
+    private int completed;
+    private int pending;
+    private int overdue;
+
+    public void reset(Collection<Assignment> assignments, long now) {
+        tracked.clear();
+        deadlines.clear();
+        completed = pending = overdue = 0;
+        for (Assignment assignment : assignments) {
+            upsert(assignment, now);
+        }
+    }
+
+    public void upsert(Assignment assignment, long now) {
+        remove(assignment.getId());
+
+        long dueAt = assignment.getDueDate() != null ? assignment.getDueDate().getTime() : Long.MAX_VALUE;
+        Bucket bucket;
+        if ("completed".equals(assignment.getStatus())) {
+            bucket = Bucket.COMPLETED;
+        } else if (dueAt < now) {
+            bucket = Bucket.OVERDUE;
+        } else {
+            bucket = Bucket.PENDING;
+            if (dueAt != Long.MAX_VALUE) {
+                deadlines.add(new Deadline(dueAt, assignment.getId()));
+            }
+        }
+        tracked.put(assignment.getId(), new Tracked(bucket, dueAt));
+        adjust(bucket, 1);
+    }
+
+    public void remove(String id) {
+        Tracked previous = tracked.remove(id);
+        if (previous != null) {
+            adjust(previous.bucket, -1);
+        }
+        if (deadlines.size() > 2 * pending + 16) {
+            compactDeadlines();
+        }
+    }
+
+    /**
+     * Moves every pending assignment whose deadline is before {@code now} to overdue.
+     *
+     * @return whether any counter changed
+     */
+    public boolean advanceTo(long now) {
+        boolean changed = false;
+        while (!deadlines.isEmpty() && deadlines.peek().dueAt < now) {
+            Deadline deadline = deadlines.poll();
+            Tracked current = tracked.get(deadline.id);
+            if (current == null || current.bucket != Bucket.PENDING || current.dueAt != deadline.dueAt) {
+                continue;
+            }
+            tracked.put(deadline.id, new Tracked(Bucket.OVERDUE, current.dueAt));
+            pending--;
+            overdue++;
+            changed = true;
+        }
+        return changed;
+    }
+
+    /** Earliest time at which {@link #advanceTo} would change a counter, or {@code Long.MAX_VALUE}. */
+    public long nextTransitionAt() {
+        while (!deadlines.isEmpty()) {
+            Deadline deadline = deadlines.peek();
+            Tracked current = tracked.get(deadline.id);
+            if (current != null && current.bucket == Bucket.PENDING && current.dueAt == deadline.dueAt) {
+                return deadline.dueAt + 1;
+            }
+            deadlines.poll();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public int getTotal() { return tracked.size(); }
+
+    public int getCompleted() { return completed; }
+
+    public int getPending() { return pending; }
+
+    public int getOverdue() { return overdue; }
+
+    private void adjust(Bucket bucket, int delta) {
+        switch (bucket) {
+            case COMPLETED:
+                completed += delta;
+                break;
+            case OVERDUE:
+                overdue += delta;
+                break;
+            default:
+                pending += delta;
+        }
+    }
+
+    private void compactDeadlines() {
+        deadlines.clear();
+        for (Map.Entry<String, Tracked> entry : tracked.entrySet()) {
+            Tracked current = entry.getValue();
+            if (current.bucket == Bucket.PENDING && current.dueAt != Long.MAX_VALUE) {
+                deadlines.add(new Deadline(current.dueAt, entry.getKey()));
+            }
+        }
+    }
+}
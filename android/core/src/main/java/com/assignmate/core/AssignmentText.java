@@ -0,0 +1,38 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Display strings for an assignment. Holds a {@link SimpleDateFormat}, so an
+ * instance is not thread-safe.
+ */
+public final class AssignmentText {
+    public static final String DEFAULT_STATUS = "pending";
+
+    private final SimpleDateFormat dateFormat;
+
+    public AssignmentText(Locale locale) {
+        this.dateFormat = new SimpleDateFormat("MMM d, yyyy", locale);
+    }
+
+    public String dueText(Date dueDate) {
+        return dueDate != null ? "Due: " + dateFormat.format(dueDate) : "";
+    }
+
+    /** The stored status, or {@link #DEFAULT_STATUS} for documents written without one. */
+    public static String status(Assignment assignment) {
+        return assignment.getStatus() != null ? assignment.getStatus() : DEFAULT_STATUS;
+    }
+
+    public static String statusLabel(String status) {
+        return status.replace("_", " ");
+    }
+
+    public static String priorityLabel(String priority) {
+        if (priority == null || priority.isEmpty()) return "";
+        return priority.substring(0, 1).toUpperCase() + priority.substring(1);
+    }
+}
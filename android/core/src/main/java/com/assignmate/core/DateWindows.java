@@ -0,0 +1,74 @@
+package com.assignmate.core;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Day and month boundaries in local time, as epoch milliseconds. Months are
+ * zero-based like {@link Calendar#MONTH}. Holds a reusable {@link Calendar}, so an
+ * instance is not thread-safe.
+ */
+public final class DateWindows {
+    private final Calendar calendar;
+
+    public DateWindows() {
+        this(TimeZone.getDefault());
+    }
+
+    public DateWindows(TimeZone timeZone) {
+        this.calendar = Calendar.getInstance(timeZone);
+    }
+
+    public long startOfDay(long millis) {
+        calendar.setTimeInMillis(millis);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    public long monthStart(int year, int month) {
+        calendar.clear();
+        calendar.set(year, month, 1);
+        return calendar.getTimeInMillis();
+    }
+
+    /** Last millisecond of the month, for inclusive range queries. */
+    public long monthEnd(int year, int month) {
+        calendar.clear();
+        calendar.set(year, month, 1);
+        calendar.add(Calendar.MONTH, 1);
+        return calendar.getTimeInMillis() - 1;
+    }
+
+    public int daysInMonth(int year, int month) {
+        calendar.clear();
+        calendar.set(year, month, 1);
+        return calendar.getActualMaximum(Calendar.DAY_OF_MONTH);
+    }
+
+    public int dayOfMonth(long millis) {
+        calendar.setTimeInMillis(millis);
+        return calendar.get(Calendar.DAY_OF_MONTH);
+    }
+
+    /** {@link #monthKey} of the month containing {@code millis}. */
+    public int monthKeyOf(long millis) {
+        calendar.setTimeInMillis(millis);
+        return monthKey(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH));
+    }
+
+    /** Orders months across years: {@code year * 12 + month}. */
+    public static int monthKey(int year, int month) {
+        return year * 12 + month;
+    }
+
+    public static int yearOf(int monthKey) {
+        return monthKey / 12;
+    }
+
+    public static int monthOf(int monthKey) {
+        return monthKey % 12;
+    }
+}
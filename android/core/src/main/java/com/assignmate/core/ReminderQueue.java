@@ -0,0 +1,154 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Upcoming due-date reminders in a min-heap keyed by reminder time, so a single
+ * wakeup at {@link #nextWakeup} covers every assignment. Reminders falling within
+ * the batch window of a wakeup are delivered together. Each reminder fires once
+ * per (assignment, due date); rescheduling an assignment arms it again. Time is
+ * passed in by the caller. Not thread-safe.
+ */
+public class ReminderQueue {
+    public static final class Reminder implements Comparable<Reminder> {
+        public final String assignmentId;
+        public final String title;
+        public final long dueAt;
+        public final long remindAt;
+
+        Reminder(String assignmentId, String title, long dueAt, long remindAt) {
+            this.assignmentId = assignmentId;
+            this.title = title;
+            this.dueAt = dueAt;
+            this.remindAt = remindAt;
+        }
+
+        String key() {
+            return firedKey(assignmentId, dueAt);
+        }
+
+        @Override
+        public int compareTo(Reminder other) {
+            return Long.compare(remindAt, other.remindAt);
+        }
+    }
+
+    private final long leadTimeMs;
+    private final long batchWindowMs;
+    private final Map<String, Reminder> reminders = new HashMap<>();
+    // Lazily pruned: entries whose assignment changed or left are skipped on poll
+    private final PriorityQueue<Reminder> queue = new PriorityQueue<>();
+    private final Set<String> fired = new HashSet<>();
+
+    /**
+     * @param leadTimeMs    how long before the due date to remind
+     * @param batchWindowMs reminders due this soon after a wakeup are delivered with it
+     */
+    public ReminderQueue(long leadTimeMs, long batchWindowMs) {
+        this.leadTimeMs = leadTimeMs;
+        this.batchWindowMs = batchWindowMs;
+    }
+
+    /** Rebuilds from {@code assignments}, skipping reminders in {@code firedKeys}. */
+    public void reset(Collection<Assignment> assignments, Collection<String> firedKeys) {
+        reminders.clear();
+        queue.clear();
+        fired.clear();
+        fired.addAll(firedKeys);
+        for (Assignment assignment : assignments) {
+            upsert(assignment);
+        }
+    }
+
+    public void upsert(Assignment assignment) {
+        Reminder previous = reminders.remove(assignment.getId());
+        if ("completed".equals(assignment.getStatus()) || assignment.getDueDate() == null) return;
+        long dueAt = assignment.getDueDate().getTime();
+        if (fired.contains(firedKey(assignment.getId(), dueAt))) return;
+        if (previous != null && previous.dueAt == dueAt && Objects.equals(previous.title, assignment.getTitle())) {
+            // Unchanged reminder: keep its heap entry rather than adding a stale duplicate
+            reminders.put(previous.assignmentId, previous);
+            return;
+        }
+        Reminder reminder = new Reminder(assignment.getId(), assignment.getTitle(), dueAt, dueAt - leadTimeMs);
+        reminders.put(reminder.assignmentId, reminder);
+        queue.add(reminder);
+    }
+
+    public void remove(String assignmentId) {
+        reminders.remove(assignmentId);
+    }
+
+    /**
+     * When the next reminder is due, or {@link Long#MAX_VALUE} if none is. May be
+     * in the past for reminders missed while the device was off.
+     */
+    public long nextWakeup(long now) {
+        prune(now);
+        Reminder head = queue.peek();
+        return head != null ? head.remindAt : Long.MAX_VALUE;
+    }
+
+    /**
+     * Removes and returns, soonest due first, every reminder due by
+     * {@code now + batchWindow} whose assignment isn't due yet.
+     */
+    public List<Reminder> poll(long now) {
+        prune(now);
+        List<Reminder> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().remindAt <= now + batchWindowMs) {
+            Reminder reminder = queue.poll();
+            if (reminders.get(reminder.assignmentId) != reminder) continue;
+            reminders.remove(reminder.assignmentId);
+            fired.add(reminder.key());
+            if (reminder.dueAt > now) {
+                due.add(reminder);
+            }
+        }
+        Collections.sort(due, (a, b) -> Long.compare(a.dueAt, b.dueAt));
+        return due;
+    }
+
+    /** Reminders already delivered for due dates still ahead, for persisting across restarts. */
+    public Set<String> firedKeys(long now) {
+        for (Iterator<String> it = fired.iterator(); it.hasNext(); ) {
+            if (dueAtOf(it.next()) <= now) it.remove();
+        }
+        return Collections.unmodifiableSet(fired);
+    }
+
+    /** Drops stale heads and reminders whose due date has already passed. */
+    private void prune(long now) {
+        while (!queue.isEmpty()) {
+            Reminder head = queue.peek();
+            if (reminders.get(head.assignmentId) == head && head.dueAt > now) break;
+            queue.poll();
+            if (reminders.get(head.assignmentId) == head) {
+                reminders.remove(head.assignmentId);
+            }
+        }
+    }
+
+    private static String firedKey(String assignmentId, long dueAt) {
+        return dueAt + "/" + assignmentId;
+    }
+
+    private static long dueAtOf(String firedKey) {
+        try {
+            return Long.parseLong(firedKey.substring(0, firedKey.indexOf('/')));
+        } catch (RuntimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Finds local copies of assignments the server no longer has. A delta listener
+ * only hears about deletions while it is attached, so a document deleted in
+ * between (e.g. from the web app) would otherwise stay in the local store; and
+ * not everything it reports as removed was deleted.
+ */
+public final class SyncReconciliation {
+    private SyncReconciliation() {
+    }
+
+    /**
+     * Whether the local store may hold deleted documents. Once the delta listener
+     * has delivered a server snapshot, every server document is stored locally, so
+     * holding more than the server counts means some were deleted (or are local
+     * creates not yet acknowledged).
+     */
+    public static boolean mayHaveStale(int localCount, long serverCount) {
+        return localCount > serverCount;
+    }
+
+    /**
+     * Ids in {@code local} missing from {@code serverIds}. Documents with local
+     * writes still pending, or synced after {@code checkedWatermark} (the watermark
+     * when {@code serverIds} was requested, so possibly created after that read),
+     * are kept.
+     */
+    public static List<String> staleIds(Collection<Assignment> local, Set<String> serverIds,
+                                        Set<String> pendingIds, long checkedWatermark) {
+        List<String> stale = new ArrayList<>();
+        for (Assignment assignment : local) {
+            String id = assignment.getId();
+            if (serverIds.contains(id) || pendingIds.contains(id)) continue;
+            if (assignment.getUpdatedAt() != null && assignment.getUpdatedAt().getTime() > checkedWatermark) continue;
+            stale.add(id);
+        }
+        return stale;
+    }
+
+    /**
+     * Ids among those the delta listener reported removed that were really deleted.
+     * A local edit stamps {@code updatedAt} with a server timestamp, which matches no
+     * {@code updatedAt > watermark} filter until the server acknowledges it, so the
+     * edited document leaves the query while it still exists; those are kept.
+     *
+     * @param existsLocally whether Firestore's local cache still holds the document
+     */
+    public static List<String> confirmedDeletes(Collection<String> removedIds, Predicate<String> existsLocally) {
+        List<String> deleted = new ArrayList<>();
+        for (String id : removedIds) {
+            if (!existsLocally.test(id)) deleted.add(id);
+        }
+        return deleted;
+    }
+}
@@ -1,6 +1,5 @@
 package com.assignmate.models;
 
-import com.google.firebase.Timestamp;
 import java.util.Date;
 
 public class Assignment {
@@ -14,6 +13,7 @@ public class Assignment {
     private String userId;
     private Date createdAt;
     private Date updatedAt;
+    private boolean pendingWrite;
 
     public Assignment() {
         // Required for Firestore
@@ -30,6 +30,20 @@ public class Assignment {
         this.updatedAt = new Date();
     }
 
+    public Assignment(Assignment other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.subject = other.subject;
+        this.dueDate = other.dueDate;
+        this.priority = other.priority;
+        this.status = other.status;
+        this.userId = other.userId;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.pendingWrite = other.pendingWrite;
+    }
+
     // Getters and Setters
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
@@ -61,7 +75,15 @@ public class Assignment {
     public Date getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
 
+    // Local-only: true while a write to this assignment has not been acknowledged
+    public boolean isPendingWrite() { return pendingWrite; }
+    public void setPendingWrite(boolean pendingWrite) { this.pendingWrite = pendingWrite; }
+
     public boolean isOverdue() {
-        return !status.equals("completed") && dueDate.before(new Date());
+        return isOverdue(System.currentTimeMillis());
+    }
+
+    public boolean isOverdue(long now) {
+        return !"completed".equals(status) && dueDate != null && dueDate.getTime() < now;
     }
 }
\ No newline at end of file
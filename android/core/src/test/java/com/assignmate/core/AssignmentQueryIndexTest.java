@@ -0,0 +1,94 @@
+package com.assignmate.core;
+
+import static com.assignmate.core.TestAssignments.DAY_MS;
+import static com.assignmate.core.TestAssignments.NOW;
+import static com.assignmate.core.TestAssignments.assignment;
+import static com.assignmate.core.TestAssignments.ids;
+import static com.assignmate.core.TestAssignments.withStatus;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.assignmate.core.AssignmentQueryIndex.Filter;
+import com.assignmate.core.AssignmentQueryIndex.Sort;
+import com.assignmate.models.Assignment;
+import java.util.Arrays;
+import java.util.Date;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AssignmentQueryIndexTest {
+    private AssignmentQueryIndex index;
+
+    @Before
+    public void setUp() {
+        index = new AssignmentQueryIndex();
+        index.reset(Arrays.asList(
+                indexed("a", NOW + 3 * DAY_MS, NOW - 3 * DAY_MS, "low", "pending", "Physics"),
+                indexed("b", NOW + DAY_MS, NOW - DAY_MS, "high", "completed", "Mathematics"),
+                indexed("c", NOW + 2 * DAY_MS, NOW - 2 * DAY_MS, "high", "pending", "Physics"),
+                indexed("d", NOW + 2 * DAY_MS, NOW, "medium", "in_progress", "Mathematics")));
+    }
+
+    @Test
+    public void sortsEverythingWithoutAFilter() {
+        assertEquals(Arrays.asList("b", "c", "d", "a"), ids(index.query(Filter.ANY, Sort.DUE_DATE)));
+        assertEquals(Arrays.asList("d", "b", "c", "a"), ids(index.query(Filter.ANY, Sort.NEWEST)));
+        assertEquals(Arrays.asList("b", "c", "d", "a"), ids(index.query(Filter.ANY, Sort.PRIORITY)));
+    }
+
+    @Test
+    public void filtersCombineAndKeepTheSortOrder() {
+        Filter physics = Filter.ANY.withSubject("Physics");
+        assertEquals(Arrays.asList("c", "a"), ids(index.query(physics, Sort.DUE_DATE)));
+        assertEquals(Arrays.asList("c", "a"), ids(index.query(physics, Sort.PRIORITY)));
+        assertEquals(Arrays.asList("a"), ids(index.query(physics.withPriority("low"), Sort.DUE_DATE)));
+        assertEquals(Arrays.asList("c", "a"), ids(index.query(Filter.ANY.withStatus("pending"), Sort.DUE_DATE)));
+    }
+
+    @Test
+    public void unknownFilterValueMatchesNothing() {
+        assertTrue(index.query(Filter.ANY.withSubject("History"), Sort.DUE_DATE).isEmpty());
+        assertTrue(index.query(Filter.ANY.withStatus("completed").withSubject("Physics"), Sort.DUE_DATE).isEmpty());
+    }
+
+    @Test
+    public void upsertMovesTheAssignmentBetweenIndices() {
+        index.upsert(withStatus(index.query(Filter.ANY.withSubject("Physics"), Sort.DUE_DATE).get(1), "completed"));
+        assertEquals(Arrays.asList("b", "a"), ids(index.query(Filter.ANY.withStatus("completed"), Sort.DUE_DATE)));
+        assertEquals(Arrays.asList("c"), ids(index.query(Filter.ANY.withStatus("pending"), Sort.DUE_DATE)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void upsertReordersTheSortedViews() {
+        Assignment moved = new Assignment(index.query(Filter.ANY, Sort.DUE_DATE).get(3));
+        moved.setDueDate(new Date(NOW));
+        index.upsert(moved);
+        assertEquals(Arrays.asList("a", "b", "c", "d"), ids(index.query(Filter.ANY, Sort.DUE_DATE)));
+    }
+
+    @Test
+    public void removeDropsTheAssignmentAndEmptySubjects() {
+        index.remove("a");
+        index.remove("c");
+        index.remove("missing");
+        assertEquals(Arrays.asList("Mathematics"), index.subjects());
+        assertEquals(Arrays.asList("b", "d"), ids(index.query(Filter.ANY, Sort.DUE_DATE)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void subjectsAreAlphabetical() {
+        assertEquals(Arrays.asList("Mathematics", "Physics"), index.subjects());
+    }
+
+    private static Assignment indexed(String id, long dueAt, long createdAt, String priority, String status,
+                                      String subject) {
+        Assignment assignment = assignment(id, dueAt);
+        assignment.setCreatedAt(new Date(createdAt));
+        assignment.setPriority(priority);
+        assignment.setStatus(status);
+        assignment.setSubject(subject);
+        return assignment;
+    }
+}
@@ -0,0 +1,94 @@
+package com.assignmate.core;
+
+import static com.assignmate.core.TestAssignments.DAY_MS;
+import static com.assignmate.core.TestAssignments.NOW;
+import static com.assignmate.core.TestAssignments.assignment;
+import static com.assignmate.core.TestAssignments.ids;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.assignmate.models.Assignment;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AssignmentSearchIndexTest {
+    private AssignmentSearchIndex index;
+
+    @Before
+    public void setUp() {
+        index = new AssignmentSearchIndex();
+        index.reset(Arrays.asList(
+                searchable("essay", NOW + 2 * DAY_MS, "Essay draft", "Compare two poems", "Literature"),
+                searchable("lab", NOW + DAY_MS, "Lab report", "Titration results", "Chemistry"),
+                searchable("proof", NOW + 3 * DAY_MS, "Problem set 4", "Induction proofs", "Mathematics")));
+    }
+
+    @Test
+    public void matchesSubstringsOfAnyFieldIgnoringCase() {
+        assertEquals(Arrays.asList("essay"), ids(index.search("DRAFT", 10)));
+        assertEquals(Arrays.asList("lab"), ids(index.search("itrat", 10)));
+        assertEquals(Arrays.asList("proof"), ids(index.search("mathem", 10)));
+    }
+
+    @Test
+    public void everyTermMustMatch() {
+        assertEquals(Arrays.asList("lab", "essay"), ids(index.search("re", 10)));
+        assertEquals(Arrays.asList("essay"), ids(index.search("re poems", 10)));
+        assertTrue(index.search("poems titration", 10).isEmpty());
+    }
+
+    @Test
+    public void shortTermsAreScannedInDueDateOrder() {
+        assertEquals(Arrays.asList("lab", "essay", "proof"), ids(index.search("e", 10)));
+    }
+
+    @Test
+    public void resultsAreCappedAtTheLimit() {
+        assertEquals(Arrays.asList("lab", "essay"), ids(index.search("e", 2)));
+    }
+
+    @Test
+    public void termsNeverMatchAcrossFields() {
+        // "report" ends the title and "titration" starts the description
+        assertTrue(index.search("reporttitration", 10).isEmpty());
+        assertEquals(Arrays.asList("lab"), ids(index.search("report titration", 10)));
+    }
+
+    @Test
+    public void blankQueryMatchesNothing() {
+        assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    public void upsertReplacesTheIndexedText() {
+        index.upsert(searchable("lab", NOW + DAY_MS, "Lab notebook", null, "Chemistry"));
+        assertTrue(index.search("report", 10).isEmpty());
+        assertEquals(Arrays.asList("lab"), ids(index.search("notebook", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void upsertWithSameTextReturnsTheNewObject() {
+        Assignment completed = searchable("lab", NOW + DAY_MS, "Lab report", "Titration results", "Chemistry");
+        completed.setStatus("completed");
+        index.upsert(completed);
+        assertEquals("completed", index.search("lab", 10).get(0).getStatus());
+    }
+
+    @Test
+    public void removeDropsTheAssignment() {
+        index.remove("essay");
+        index.remove("missing");
+        assertTrue(index.search("poems", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    private static Assignment searchable(String id, long dueAt, String title, String description, String subject) {
+        Assignment assignment = assignment(id, dueAt);
+        assignment.setTitle(title);
+        assignment.setDescription(description);
+        assignment.setSubject(subject);
+        return assignment;
+    }
+}
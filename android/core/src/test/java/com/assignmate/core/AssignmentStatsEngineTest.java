@@ -0,0 +1,107 @@
+package com.assignmate.core;
+
+import static com.assignmate.core.TestAssignments.DAY_MS;
+import static com.assignmate.core.TestAssignments.HOUR_MS;
+import static com.assignmate.core.TestAssignments.NOW;
+import static com.assignmate.core.TestAssignments.assignment;
+import static com.assignmate.core.TestAssignments.withDueAt;
+import static com.assignmate.core.TestAssignments.withStatus;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AssignmentStatsEngineTest {
+    private AssignmentStatsEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new AssignmentStatsEngine();
+        engine.reset(Arrays.asList(
+                assignment("past", NOW - DAY_MS),
+                assignment("soon", NOW + HOUR_MS),
+                assignment("later", NOW + DAY_MS),
+                withStatus(assignment("done", NOW - DAY_MS), "completed"),
+                assignment("undated", null)), NOW);
+    }
+
+    @Test
+    public void resetBucketsByStatusAndDueDate() {
+        assertCounts(5, 1, 3, 1);
+    }
+
+    @Test
+    public void nextTransitionIsJustAfterEarliestPendingDeadline() {
+        assertEquals(NOW + HOUR_MS + 1, engine.nextTransitionAt());
+    }
+
+    @Test
+    public void advanceMovesPassedDeadlinesToOverdue() {
+        assertFalse(engine.advanceTo(NOW + HOUR_MS));
+        assertTrue(engine.advanceTo(NOW + HOUR_MS + 1));
+        assertCounts(5, 1, 2, 2);
+        assertEquals(NOW + DAY_MS + 1, engine.nextTransitionAt());
+    }
+
+    @Test
+    public void undatedAssignmentsNeverBecomeOverdue() {
+        engine.advanceTo(Long.MAX_VALUE);
+        assertCounts(5, 1, 1, 3);
+        assertEquals(Long.MAX_VALUE, engine.nextTransitionAt());
+    }
+
+    @Test
+    public void completingDropsTheDeadline() {
+        engine.upsert(withStatus(assignment("soon", NOW + HOUR_MS), "completed"), NOW);
+        assertCounts(5, 2, 2, 1);
+        assertEquals(NOW + DAY_MS + 1, engine.nextTransitionAt());
+        assertFalse(engine.advanceTo(NOW + HOUR_MS + 1));
+    }
+
+    @Test
+    public void reschedulingReplacesTheDeadline() {
+        engine.upsert(withDueAt(assignment("soon", null), NOW + 2 * DAY_MS), NOW);
+        assertEquals(NOW + DAY_MS + 1, engine.nextTransitionAt());
+        engine.advanceTo(NOW + DAY_MS + 1);
+        assertCounts(5, 1, 2, 2);
+    }
+
+    @Test
+    public void reschedulingIntoThePastIsOverdueAtOnce() {
+        engine.upsert(withDueAt(assignment("later", null), NOW - HOUR_MS), NOW);
+        assertCounts(5, 1, 2, 2);
+    }
+
+    @Test
+    public void removeForgetsTheAssignment() {
+        engine.remove("soon");
+        engine.remove("past");
+        engine.remove("missing");
+        assertCounts(3, 1, 2, 0);
+        assertEquals(NOW + DAY_MS + 1, engine.nextTransitionAt());
+    }
+
+    @Test
+    public void nextTransitionSurvivesCompaction() {
+        engine.reset(Collections.emptyList(), NOW);
+        for (int i = 0; i < 100; i++) {
+            engine.upsert(assignment("a" + i, NOW + i * HOUR_MS + 1), NOW);
+        }
+        for (int i = 0; i < 99; i++) {
+            engine.remove("a" + i);
+        }
+        assertCounts(1, 0, 1, 0);
+        assertEquals(NOW + 99 * HOUR_MS + 2, engine.nextTransitionAt());
+    }
+
+    private void assertCounts(int total, int completed, int pending, int overdue) {
+        assertEquals("total", total, engine.getTotal());
+        assertEquals("completed", completed, engine.getCompleted());
+        assertEquals("pending", pending, engine.getPending());
+        assertEquals("overdue", overdue, engine.getOverdue());
+    }
+}
@@ -0,0 +1,161 @@
+package com.assignmate.core;
+
+import static com.assignmate.core.TestAssignments.DAY_MS;
+import static com.assignmate.core.TestAssignments.HOUR_MS;
+import static com.assignmate.core.TestAssignments.NOW;
+import static com.assignmate.core.TestAssignments.assignment;
+import static com.assignmate.core.TestAssignments.withDueAt;
+import static com.assignmate.core.TestAssignments.withStatus;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReminderQueueTest {
+    private static final long LEAD_MS = DAY_MS;
+    private static final long WINDOW_MS = 30L * 60 * 1000;
+
+    private ReminderQueue queue;
+    // The fake clock: tests move it forward and pass it to the queue
+    private long now;
+
+    @Before
+    public void setUp() {
+        queue = new ReminderQueue(LEAD_MS, WINDOW_MS);
+        now = NOW;
+    }
+
+    @Test
+    public void wakesForTheNearestDueReminder() {
+        queue.reset(Arrays.asList(
+                assignment("later", now + 3 * DAY_MS),
+                assignment("soon", now + 2 * DAY_MS),
+                assignment("undated", null)), Collections.emptySet());
+        assertEquals(now + DAY_MS, queue.nextWakeup(now));
+    }
+
+    @Test
+    public void nothingIsDueBeforeTheWakeup() {
+        queue.reset(Arrays.asList(assignment("soon", now + 2 * DAY_MS)), Collections.emptySet());
+        assertTrue(queue.poll(now).isEmpty());
+        assertEquals(now + DAY_MS, queue.nextWakeup(now));
+    }
+
+    @Test
+    public void pollDeliversEverythingInsideTheBatchWindow() {
+        queue.reset(Arrays.asList(
+                assignment("first", now + 2 * DAY_MS),
+                assignment("batched", now + 2 * DAY_MS + WINDOW_MS),
+                assignment("next", now + 2 * DAY_MS + WINDOW_MS + 1)), Collections.emptySet());
+        now += DAY_MS;
+        assertEquals(Arrays.asList("first", "batched"), ids(queue.poll(now)));
+        assertEquals(now + WINDOW_MS + 1, queue.nextWakeup(now));
+        now += WINDOW_MS + 1;
+        assertEquals(Arrays.asList("next"), ids(queue.poll(now)));
+        assertEquals(Long.MAX_VALUE, queue.nextWakeup(now));
+    }
+
+    @Test
+    public void completedAndRemovedAssignmentsDropOut() {
+        queue.reset(Arrays.asList(
+                assignment("done", now + 2 * DAY_MS),
+                assignment("gone", now + 2 * DAY_MS + HOUR_MS),
+                assignment("kept", now + 3 * DAY_MS)), Collections.emptySet());
+        queue.upsert(withStatus(assignment("done", now + 2 * DAY_MS), "completed"));
+        queue.remove("gone");
+        assertEquals(now + 2 * DAY_MS, queue.nextWakeup(now));
+        now += 2 * DAY_MS;
+        assertEquals(Arrays.asList("kept"), ids(queue.poll(now)));
+    }
+
+    @Test
+    public void missedRemindersStillFireWhileTheDueDateIsAhead() {
+        queue.reset(Arrays.asList(assignment("missed", now + HOUR_MS)), Collections.emptySet());
+        assertEquals(now + HOUR_MS - LEAD_MS, queue.nextWakeup(now));
+        assertEquals(Arrays.asList("missed"), ids(queue.poll(now)));
+    }
+
+    @Test
+    public void pastDueAssignmentsNeverFire() {
+        queue.reset(Arrays.asList(
+                assignment("overdue", now - HOUR_MS),
+                assignment("due-now", now)), Collections.emptySet());
+        assertEquals(Long.MAX_VALUE, queue.nextWakeup(now));
+        assertTrue(queue.poll(now).isEmpty());
+    }
+
+    @Test
+    public void dueDatePassingWhileQueuedDropsTheReminder() {
+        queue.reset(Arrays.asList(assignment("slept-through", now + 2 * DAY_MS)), Collections.emptySet());
+        now += 3 * DAY_MS;
+        assertEquals(Long.MAX_VALUE, queue.nextWakeup(now));
+        assertTrue(queue.poll(now).isEmpty());
+    }
+
+    @Test
+    public void reschedulingMovesTheWakeup() {
+        Assignment assignment = assignment("moved", now + 2 * DAY_MS);
+        queue.reset(Arrays.asList(assignment), Collections.emptySet());
+        queue.upsert(withDueAt(assignment, now + 5 * DAY_MS));
+        assertEquals(now + 4 * DAY_MS, queue.nextWakeup(now));
+        queue.upsert(withDueAt(assignment, now + 3 * DAY_MS));
+        assertEquals(now + 2 * DAY_MS, queue.nextWakeup(now));
+    }
+
+    @Test
+    public void firedReminderIsRearmedOnlyByANewDueDate() {
+        Assignment assignment = assignment("rearmed", now + 2 * DAY_MS);
+        queue.reset(Arrays.asList(assignment), Collections.emptySet());
+        now += DAY_MS;
+        assertEquals(Arrays.asList("rearmed"), ids(queue.poll(now)));
+
+        // Edits that keep the due date don't fire it again
+        Assignment retitled = new Assignment(assignment);
+        retitled.setTitle("Renamed");
+        queue.upsert(retitled);
+        assertEquals(Long.MAX_VALUE, queue.nextWakeup(now));
+
+        queue.upsert(withDueAt(assignment, now + 2 * DAY_MS));
+        assertEquals(now + DAY_MS, queue.nextWakeup(now));
+        now += DAY_MS;
+        assertEquals(Arrays.asList("rearmed"), ids(queue.poll(now)));
+    }
+
+    @Test
+    public void firedKeysSurviveARebuild() {
+        List<Assignment> stored = Arrays.asList(
+                assignment("fired", now + 2 * DAY_MS),
+                assignment("waiting", now + 4 * DAY_MS));
+        queue.reset(stored, Collections.emptySet());
+        now += DAY_MS;
+        queue.poll(now);
+
+        ReminderQueue restarted = new ReminderQueue(LEAD_MS, WINDOW_MS);
+        restarted.reset(stored, queue.firedKeys(now));
+        assertEquals(now + 2 * DAY_MS, restarted.nextWakeup(now));
+    }
+
+    @Test
+    public void firedKeysForgetPassedDueDates() {
+        queue.reset(Arrays.asList(assignment("fired", now + 2 * DAY_MS)), Collections.emptySet());
+        now += DAY_MS;
+        queue.poll(now);
+        assertEquals(1, queue.firedKeys(now).size());
+        now += DAY_MS;
+        assertTrue(queue.firedKeys(now).isEmpty());
+    }
+
+    private static List<String> ids(List<ReminderQueue.Reminder> reminders) {
+        List<String> ids = new ArrayList<>(reminders.size());
+        for (ReminderQueue.Reminder reminder : reminders) {
+            ids.add(reminder.assignmentId);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,92 @@
+package com.assignmate.core;
+
+import static com.assignmate.core.TestAssignments.DAY_MS;
+import static com.assignmate.core.TestAssignments.HOUR_MS;
+import static com.assignmate.core.TestAssignments.NOW;
+import static com.assignmate.core.TestAssignments.assignment;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.assignmate.models.Assignment;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class SyncReconciliationTest {
+    private static final long WATERMARK = NOW - HOUR_MS;
+
+    @Test
+    public void deleteWhileOfflineIsDetectedAndRemoved() {
+        // Synced earlier; "b" was then deleted on the server while no listener was attached
+        List<Assignment> local = Arrays.asList(synced("a"), synced("b"), synced("c"));
+        Set<String> server = ids("a", "c");
+
+        assertTrue(SyncReconciliation.mayHaveStale(local.size(), server.size()));
+        assertEquals(Arrays.asList("b"),
+                SyncReconciliation.staleIds(local, server, Collections.emptySet(), WATERMARK));
+    }
+
+    @Test
+    public void matchingCountsNeedNoCheck() {
+        assertFalse(SyncReconciliation.mayHaveStale(3, 3));
+        // The listener hasn't delivered everything yet
+        assertFalse(SyncReconciliation.mayHaveStale(2, 3));
+    }
+
+    @Test
+    public void unacknowledgedLocalCreatesAreKept() {
+        Assignment created = assignment("new", NOW + DAY_MS);
+        created.setUpdatedAt(null);
+        List<Assignment> local = Arrays.asList(synced("a"), created);
+
+        assertTrue(SyncReconciliation.staleIds(local, ids("a"), ids("new"), WATERMARK).isEmpty());
+    }
+
+    @Test
+    public void documentsSyncedAfterTheCheckAreKept() {
+        Assignment arrived = synced("late");
+        arrived.setUpdatedAt(new Date(WATERMARK + 1));
+        List<Assignment> local = Arrays.asList(synced("a"), arrived);
+
+        assertTrue(SyncReconciliation.staleIds(local, ids("a"), Collections.emptySet(), WATERMARK).isEmpty());
+    }
+
+    @Test
+    public void documentsWithoutUpdatedAtCanBeStale() {
+        Assignment legacy = synced("legacy");
+        legacy.setUpdatedAt(null);
+
+        assertEquals(Arrays.asList("legacy"), SyncReconciliation.staleIds(Arrays.asList(legacy),
+                Collections.emptySet(), Collections.emptySet(), WATERMARK));
+    }
+
+    @Test
+    public void editWhileOfflineKeepsTheRow() {
+        // The edit's pending server timestamp drops "edited" out of the delta query,
+        // but the document is still in the local cache
+        Set<String> cached = ids("edited", "kept");
+        assertTrue(SyncReconciliation.confirmedDeletes(Arrays.asList("edited"), cached::contains).isEmpty());
+    }
+
+    @Test
+    public void removalsGoneFromTheCacheAreDeletes() {
+        Set<String> cached = ids("edited");
+        assertEquals(Arrays.asList("deleted"),
+                SyncReconciliation.confirmedDeletes(Arrays.asList("edited", "deleted"), cached::contains));
+    }
+
+    private static Assignment synced(String id) {
+        Assignment assignment = assignment(id, NOW + DAY_MS);
+        assignment.setUpdatedAt(new Date(WATERMARK - DAY_MS));
+        return assignment;
+    }
+
+    private static Set<String> ids(String... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+}
@@ -0,0 +1,44 @@
+package com.assignmate.core;
+
+import com.assignmate.models.Assignment;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/** Small hand-built assignments for the unit tests. */
+final class TestAssignments {
+    static final long NOW = 1_700_000_000_000L;
+    static final long HOUR_MS = 60L * 60 * 1000;
+    static final long DAY_MS = 24 * HOUR_MS;
+
+    private TestAssignments() {
+    }
+
+    /** A pending, medium-priority assignment due at {@code dueAt}, or without a due date if null. */
+    static Assignment assignment(String id, Long dueAt) {
+        Assignment assignment = new Assignment("Assignment " + id, null, "Mathematics",
+                dueAt != null ? new Date(dueAt) : null, "medium");
+        assignment.setId(id);
+        return assignment;
+    }
+
+    static Assignment withStatus(Assignment assignment, String status) {
+        Assignment copy = new Assignment(assignment);
+        copy.setStatus(status);
+        return copy;
+    }
+
+    static Assignment withDueAt(Assignment assignment, long dueAt) {
+        Assignment copy = new Assignment(assignment);
+        copy.setDueDate(new Date(dueAt));
+        return copy;
+    }
+
+    static List<String> ids(List<Assignment> assignments) {
+        List<String> ids = new ArrayList<>(assignments.size());
+        for (Assignment assignment : assignments) {
+            ids.add(assignment.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,135 @@
+#!/usr/bin/env node
+// Seeds the local Firebase emulators with a benchmark account and synthetic data.
+//
+//   firebase emulators:start --only auth,firestore   (from web/)
+//   node seed-emulator.mjs --project <project_id from google-services.json>
+//
+// Options: --assignments 5000 --users 2000 --host localhost
+// Data is generated from a fixed seed so every run benchmarks the same documents.
+
+const args = Object.fromEntries(
+  process.argv.slice(2).reduce((pairs, arg, i, all) => {
+    if (arg.startsWith('--')) pairs.push([arg.slice(2), all[i + 1]]);
+    return pairs;
+  }, [])
+);
+
+const project = args.project || process.env.GCLOUD_PROJECT;
+const host = args.host || 'localhost';
+const assignmentCount = Number(args.assignments || 5000);
+const userCount = Number(args.users || 2000);
+
+const EMAIL = 'bench@assignmate.test';
+const PASSWORD = 'benchmark';
+const BATCH_SIZE = 500;
+const DAY_MS = 24 * 60 * 60 * 1000;
+
+const SUBJECTS = ['Mathematics', 'Physics', 'Chemistry', 'Biology', 'History', 'Literature', 'Computer Science'];
+const PRIORITIES = ['low', 'medium', 'high'];
+const STATUSES = ['pending', 'in_progress', 'completed'];
+
+if (!project) {
+  console.error('Missing --project (or GCLOUD_PROJECT)');
+  process.exit(1);
+}
+
+const firestoreBase = `http://${host}:8080/v1/projects/${project}/databases/(default)/documents`;
+const authBase = `http://${host}:9099/identitytoolkit.googleapis.com/v1`;
+
+// Small deterministic PRNG (mulberry32)
+let state = 0x5eed;
+function random() {
+  state = (state + 0x6d2b79f5) | 0;
+  let t = Math.imul(state ^ (state >>> 15), 1 | state);
+  t = (t + Math.imul(t ^ (t >>> 7), 61 | t)) ^ t;
+  return ((t ^ (t >>> 14)) >>> 0) / 4294967296;
+}
+const pick = (values) => values[Math.floor(random() * values.length)];
+
+async function post(url, body, headers = {}) {
+  const response = await fetch(url, {
+    method: 'POST',
+    headers: { 'Content-Type': 'application/json', ...headers },
+    body: JSON.stringify(body),
+  });
+  const json = await response.json();
+  if (!response.ok) throw new Error(`${url}: ${JSON.stringify(json.error || json)}`);
+  return json;
+}
+
+async function benchmarkUserId() {
+  try {
+    return (await post(`${authBase}/accounts:signUp?key=emulator`, { email: EMAIL, password: PASSWORD })).localId;
+  } catch (e) {
+    if (!String(e.message).includes('EMAIL_EXISTS')) throw e;
+    return (await post(`${authBase}/accounts:signInWithPassword?key=emulator`, { email: EMAIL, password: PASSWORD }))
+      .localId;
+  }
+}
+
+const string = (value) => ({ stringValue: value });
+const bool = (value) => ({ booleanValue: value });
+const time = (ms) => ({ timestampValue: new Date(ms).toISOString() });
+
+async function commit(collection, docs) {
+  for (let start = 0; start < docs.length; start += BATCH_SIZE) {
+    const writes = docs.slice(start, start + BATCH_SIZE).map(([id, fields]) => ({
+      update: { name: `projects/${project}/databases/(default)/documents/${collection}/${id}`, fields },
+    }));
+    // "owner" bypasses security rules on the emulator
+    await post(`${firestoreBase}:commit`, { writes }, { Authorization: 'Bearer owner' });
+  }
+  console.log(`Seeded ${docs.length} ${collection}`);
+}
+
+async function main() {
+  const now = Date.now();
+  const uid = await benchmarkUserId();
+
+  const users = [[uid, {
+    name: string('Benchmark Admin'),
+    email: string(EMAIL),
+    isAdmin: bool(true),
+    createdAt: time(now - 365 * DAY_MS),
+    updatedAt: time(now),
+    lastLoginAt: time(now),
+  }]];
+  for (let i = 0; i < userCount; i++) {
+    const createdAt = now - Math.floor(random() * 365 * DAY_MS);
+    users.push([`bench-user-${i}`, {
+      name: string(`Student ${i}`),
+      email: string(`student${i}@assignmate.test`),
+      isAdmin: bool(false),
+      createdAt: time(createdAt),
+      updatedAt: time(createdAt),
+      lastLoginAt: time(createdAt + Math.floor(random() * (now - createdAt))),
+    }]);
+  }
+
+  // Spread due dates from six months back to six months ahead of today
+  const assignments = [];
+  for (let i = 0; i < assignmentCount; i++) {
+    const subject = pick(SUBJECTS);
+    const createdAt = now - Math.floor(random() * 200 * DAY_MS);
+    assignments.push([`bench-assignment-${i}`, {
+      userId: string(uid),
+      title: string(`${subject} assignment ${i}`),
+      description: string(`Synthetic assignment ${i} for benchmarking`),
+      subject: string(subject),
+      dueDate: time(now + Math.floor((random() - 0.5) * 365 * DAY_MS)),
+      priority: string(pick(PRIORITIES)),
+      status: string(pick(STATUSES)),
+      createdAt: time(createdAt),
+      updatedAt: time(createdAt),
+    }]);
+  }
+
+  await commit('users', users);
+  await commit('assignments', assignments);
+  console.log(`Sign in as ${EMAIL} / ${PASSWORD}`);
+}
+
+main().catch((e) => {
+  console.error(e);
+  process.exit(1);
+});
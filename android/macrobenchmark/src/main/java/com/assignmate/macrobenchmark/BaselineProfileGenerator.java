@@ -0,0 +1,36 @@
+package com.assignmate.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import kotlin.Unit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Records the profile shipped as {@code app/src/main/baseline-prof.txt}. Needs a
+ * rooted device or an API 33+ emulator; copy the generated file over the old one.
+ */
+@RunWith(JUnit4.class)
+public class BaselineProfileGenerator {
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Before
+    public void signIn() {
+        Journeys.signIn();
+    }
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(Journeys.PACKAGE_NAME, scope -> {
+            scope.pressHome();
+            scope.startActivityAndWait();
+            Journeys.waitForDashboard(scope.getDevice());
+            Journeys.openAssignments(scope.getDevice());
+            Journeys.flingList(scope.getDevice());
+            return Unit.INSTANCE;
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.assignmate.macrobenchmark;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.Intent;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.BySelector;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+import java.util.regex.Pattern;
+
+/**
+ * UI steps shared by the benchmarks. The account is created by
+ * {@code seed/seed-emulator.mjs} and is an admin so the users list can be opened.
+ */
+final class Journeys {
+    static final String PACKAGE_NAME = "com.assignmate";
+    static final String EMAIL = "bench@assignmate.test";
+    static final String PASSWORD = "benchmark";
+    private static final long TIMEOUT_MS = 15_000;
+    private static final int FLINGS = 3;
+
+    private Journeys() {
+    }
+
+    /** Signs the seeded account in once so every measured launch lands on the dashboard. */
+    static void signIn() {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        UiDevice device = UiDevice.getInstance(instrumentation);
+        Context context = instrumentation.getContext();
+        Intent intent = context.getPackageManager().getLaunchIntentForPackage(PACKAGE_NAME);
+        if (intent == null) {
+            throw new IllegalStateException(PACKAGE_NAME + " is not installed");
+        }
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        context.startActivity(intent);
+
+        BySelector loginOrDashboard = By.res(Pattern.compile(PACKAGE_NAME + ":id/(etEmail|tvTotal)"));
+        device.wait(Until.hasObject(loginOrDashboard), TIMEOUT_MS);
+        UiObject2 email = device.findObject(By.res(PACKAGE_NAME, "etEmail"));
+        if (email != null) {
+            email.setText(EMAIL);
+            device.findObject(By.res(PACKAGE_NAME, "etPassword")).setText(PASSWORD);
+            device.findObject(By.res(PACKAGE_NAME, "btnLogin")).click();
+        }
+        waitForDashboard(device);
+        device.pressHome();
+    }
+
+    static void waitForDashboard(UiDevice device) {
+        require(device, By.res(PACKAGE_NAME, "tvTotal"));
+    }
+
+    static void openAssignments(UiDevice device) {
+        require(device, By.res(PACKAGE_NAME, "btnAssignments")).click();
+        require(device, By.res(PACKAGE_NAME, "recyclerView"));
+    }
+
+    static void openAdmin(UiDevice device) {
+        require(device, By.desc("More options")).click();
+        require(device, By.text("Admin")).click();
+        require(device, By.res(PACKAGE_NAME, "recyclerView"));
+    }
+
+    /** Flings the screen's list to the bottom a few times and back up once. */
+    static void flingList(UiDevice device) {
+        UiObject2 list = require(device, By.res(PACKAGE_NAME, "recyclerView"));
+        // Keep the gesture clear of the system navigation areas
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        for (int i = 0; i < FLINGS; i++) {
+            list.fling(Direction.DOWN);
+            device.waitForIdle();
+        }
+        list.fling(Direction.UP);
+        device.waitForIdle();
+    }
+
+    private static UiObject2 require(UiDevice device, BySelector selector) {
+        UiObject2 object = device.wait(Until.findObject(selector), TIMEOUT_MS);
+        if (object == null) {
+            throw new AssertionError("Timed out waiting for " + selector);
+        }
+        return object;
+    }
+}
@@ -0,0 +1,68 @@
+package com.assignmate.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import java.util.Collections;
+import kotlin.Unit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Frame timing while flinging the two long lists against the seeded emulator data. */
+@RunWith(JUnit4.class)
+public class ScrollBenchmark {
+    private static final int ITERATIONS = 5;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Before
+    public void signIn() {
+        Journeys.signIn();
+    }
+
+    @Test
+    public void flingAssignments() {
+        benchmarkRule.measureRepeated(
+                Journeys.PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                null,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    Journeys.waitForDashboard(scope.getDevice());
+                    Journeys.openAssignments(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Journeys.flingList(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @Test
+    public void flingAdminUsers() {
+        benchmarkRule.measureRepeated(
+                Journeys.PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                null,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    Journeys.waitForDashboard(scope.getDevice());
+                    Journeys.openAdmin(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Journeys.flingList(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
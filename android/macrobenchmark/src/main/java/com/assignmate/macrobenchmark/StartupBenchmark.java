@@ -0,0 +1,69 @@
+package com.assignmate.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import kotlin.Unit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Time from launcher tap to a drawn dashboard for a signed-in user, cold and warm,
+ * with and without the baseline profile applied.
+ */
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final StartupMode startupMode;
+    private final CompilationMode compilationMode;
+
+    public StartupBenchmark(StartupMode startupMode, CompilationMode compilationMode) {
+        this.startupMode = startupMode;
+        this.compilationMode = compilationMode;
+    }
+
+    @Parameterized.Parameters(name = "{0}_{1}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{
+                {StartupMode.COLD, new CompilationMode.None()},
+                {StartupMode.COLD, new CompilationMode.Partial()},
+                {StartupMode.WARM, new CompilationMode.None()},
+                {StartupMode.WARM, new CompilationMode.Partial()},
+        });
+    }
+
+    @Before
+    public void signIn() {
+        Journeys.signIn();
+    }
+
+    @Test
+    public void startupToDashboard() {
+        benchmarkRule.measureRepeated(
+                Journeys.PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    Journeys.waitForDashboard(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -5,14 +5,13 @@ import {
   where,
   orderBy,
   onSnapshot,
-  addDoc,
-  updateDoc,
-  deleteDoc,
+  writeBatch,
   doc,
   serverTimestamp,
   Timestamp,
 } from 'firebase/firestore';
 import { db } from '@/lib/firebase';
+import { queueStatsChange, queueStatsReset } from '@/lib/userStats';
 import { useAuth } from '@/contexts/AuthContext';
 
 export type Priority = 'low' | 'medium' | 'high';
@@ -122,25 +121,47 @@ export function useAssignments(): UseAssignmentsReturn {
   const createAssignment = useCallback(async (data: CreateAssignmentInput) => {
     if (!user) throw new Error('User not authenticated');
 
-    await addDoc(collection(db, 'assignments'), {
+    const batch = writeBatch(db);
+    batch.set(doc(collection(db, 'assignments')), {
       ...data,
       status: 'pending',
       userId: user.id,
       createdAt: serverTimestamp(),
       updatedAt: serverTimestamp(),
     });
-  }, [user]);
+    const created = { status: 'pending', subject: data.subject };
+    if (!loading && !error && assignments.length === 0) {
+      // The first assignment: the counters are known whole, so give the stats doc a baseline
+      queueStatsReset(batch, user.id, [created]);
+    } else {
+      queueStatsChange(batch, user.id, null, created);
+    }
+    await batch.commit();
+  }, [user, loading, error, assignments]);
 
   const updateAssignment = useCallback(async (id: string, data: UpdateAssignmentInput) => {
-    await updateDoc(doc(db, 'assignments', id), {
+    const batch = writeBatch(db);
+    batch.update(doc(db, 'assignments', id), {
       ...data,
       updatedAt: serverTimestamp(),
     });
-  }, []);
+    // Counters only move when the status bucket or subject changes
+    const before = assignments.find((a) => a.id === id);
+    if (before) {
+      queueStatsChange(batch, before.userId, before, { ...before, ...data });
+    }
+    await batch.commit();
+  }, [assignments]);
 
   const deleteAssignment = useCallback(async (id: string) => {
-    await deleteDoc(doc(db, 'assignments', id));
-  }, []);
+    const batch = writeBatch(db);
+    batch.delete(doc(db, 'assignments', id));
+    const before = assignments.find((a) => a.id === id);
+    if (before) {
+      queueStatsChange(batch, before.userId, before, null);
+    }
+    await batch.commit();
+  }, [assignments]);
 
   return {
     assignments,
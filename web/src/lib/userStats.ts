@@ -0,0 +1,74 @@
+import { doc, increment, serverTimestamp, WriteBatch } from 'firebase/firestore'
+import { db } from './firebase'
+
+// Per-user counters kept in userStats/{userId}; every assignment write carries
+// matching increments in the same batch so reading them costs one document get.
+interface Countable {
+  status: string
+  subject?: string | null
+}
+
+type Deltas = Record<string, number>
+
+function addCounts(deltas: Deltas, assignment: Countable, sign: number) {
+  deltas.total = (deltas.total || 0) + sign
+  const bucket = assignment.status === 'completed' ? 'completed' : 'pending'
+  deltas[bucket] = (deltas[bucket] || 0) + sign
+  if (assignment.subject) {
+    const key = `bySubject.${assignment.subject}`
+    deltas[key] = (deltas[key] || 0) + sign
+  }
+}
+
+/**
+ * Adds the stats increments for replacing `before` with `after` (either may be null) to `batch`.
+ * Increments alone don't give a missing document a baseline, so `repairedAt` is left for
+ * whoever writes the whole counters (see `queueStatsReset`).
+ */
+export function queueStatsChange(
+  batch: WriteBatch,
+  userId: string,
+  before: Countable | null,
+  after: Countable | null
+) {
+  const deltas: Deltas = {}
+  if (before) addCounts(deltas, before, -1)
+  if (after) addCounts(deltas, after, 1)
+
+  const data: Record<string, any> = {}
+  const bySubject: Record<string, any> = {}
+  for (const [field, delta] of Object.entries(deltas)) {
+    if (delta === 0) continue
+    if (field.startsWith('bySubject.')) {
+      bySubject[field.slice('bySubject.'.length)] = increment(delta)
+    } else {
+      data[field] = increment(delta)
+    }
+  }
+  if (Object.keys(bySubject).length > 0) data.bySubject = bySubject
+  if (Object.keys(data).length === 0) return
+
+  batch.set(doc(db, 'userStats', userId), data, { merge: true })
+}
+
+/**
+ * Adds a write of the whole counters for `assignments`, stamped with `repairedAt`, to `batch`.
+ * Only for when the caller knows every assignment the user has.
+ */
+export function queueStatsReset(batch: WriteBatch, userId: string, assignments: Countable[]) {
+  const deltas: Deltas = {}
+  for (const assignment of assignments) addCounts(deltas, assignment, 1)
+
+  const bySubject: Record<string, number> = {}
+  for (const [field, count] of Object.entries(deltas)) {
+    if (field.startsWith('bySubject.')) bySubject[field.slice('bySubject.'.length)] = count
+  }
+  const data = {
+    total: deltas.total || 0,
+    completed: deltas.completed || 0,
+    pending: deltas.pending || 0,
+    bySubject,
+    repairedAt: serverTimestamp(),
+  }
+  batch.set(doc(db, 'userStats', userId), data, { mergeFields: Object.keys(data) })
+}